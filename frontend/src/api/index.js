@@ -83,4 +83,39 @@ export const adminApi = {
   toggleCategory: (id) => api.patch(`/api/admin/categories/${id}/toggle`),
 };
 
+// Live booking changes over Server-Sent Events. EventSource cannot send the Authorization
+// header, so every (re)connect first fetches a short-lived stream token. scope: 'user' | 'provider'
+const BOOKING_EVENT_TYPES = ['CREATED', 'STATUS_CHANGED', 'REVIEWED', 'REMINDER'];
+
+export const subscribeBookingEvents = (scope, onEvent) => {
+  let source = null;
+  let retry = null;
+  let closed = false;
+
+  const reconnectLater = () => {
+    if (!closed) retry = setTimeout(connect, 5000);
+  };
+
+  async function connect() {
+    try {
+      const { data } = await api.post(`/api/${scope}/bookings/events/token`);
+      if (closed) return;
+      source = new EventSource(`${API_BASE_URL}/api/${scope}/bookings/events?token=${encodeURIComponent(data.token)}`);
+      BOOKING_EVENT_TYPES.forEach(type =>
+        source.addEventListener(type, e => onEvent(type, JSON.parse(e.data))));
+      // The token expires within a minute, so a dropped stream reconnects with a fresh one
+      source.onerror = () => { source.close(); reconnectLater(); };
+    } catch {
+      reconnectLater();
+    }
+  }
+
+  connect();
+  return () => {
+    closed = true;
+    clearTimeout(retry);
+    if (source) source.close();
+  };
+};
+
 export default api;
@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from 'react';
 import Sidebar from '../../components/shared/Sidebar';
-import { providerApi } from '../../api';
+import { providerApi, subscribeBookingEvents } from '../../api';
 import toast from 'react-hot-toast';
 
 const statusStyles = {
@@ -18,8 +18,8 @@ export default function ProviderBookings() {
   const [filter, setFilter] = useState('ALL');
   const [updating, setUpdating] = useState(null);
 
-  const load = () => {
-    setLoading(true);
+  const load = (quiet = false) => {
+    if (!quiet) setLoading(true);
     providerApi.getMyBookings()
       .then(r => {
         const data = r.data;
@@ -29,7 +29,14 @@ export default function ProviderBookings() {
       .catch(() => { toast.error('Failed to load bookings'); setLoading(false); });
   };
 
-  useEffect(() => { load(); }, []);
+  useEffect(() => {
+    load();
+    // Refresh quietly whenever one of our bookings changes instead of polling
+    return subscribeBookingEvents('provider', (type) => {
+      if (type === 'REMINDER') toast('A booking starts soon');
+      load(true);
+    });
+  }, []);
 
   const updateStatus = async (id, status) => {
     setUpdating(id);
@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from 'react';
 import Sidebar from '../../components/shared/Sidebar';
-import { userApi } from '../../api';
+import { userApi, subscribeBookingEvents } from '../../api';
 import { useNavigate } from 'react-router-dom';
 import toast from 'react-hot-toast';
 import PaymentModal from '../../components/shared/PaymentModal';
@@ -72,8 +72,8 @@ export default function MyBookings() {
   const [filter, setFilter] = useState('ALL');
   const navigate = useNavigate();
 
-  const load = () => {
-    setLoading(true);
+  const load = (quiet = false) => {
+    if (!quiet) setLoading(true);
     userApi.getBookings()
       .then(r => {
         const data = r.data;
@@ -83,7 +83,14 @@ export default function MyBookings() {
       .catch(() => { toast.error('Failed to load bookings'); setLoading(false); });
   };
 
-  useEffect(() => { load(); }, []);
+  useEffect(() => {
+    load();
+    // Refresh quietly whenever one of our bookings changes instead of polling
+    return subscribeBookingEvents('user', (type) => {
+      if (type === 'REMINDER') toast('Your booking starts soon');
+      load(true);
+    });
+  }, []);
 
   const cancel = async (id) => {
     if (!window.confirm('Cancel this booking?')) return;
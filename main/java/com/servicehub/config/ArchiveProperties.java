@@ -0,0 +1,27 @@
+package com.servicehub.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Archival of finished bookings out of the hot {@code bookings} table.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.archive")
+@Data
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+
+    /** COMPLETED / CANCELLED / REJECTED bookings untouched for this long are archived. */
+    private Duration after = Duration.ofDays(180);
+
+    /** Bookings moved per transaction; keeps row locks short. */
+    private int batchSize = 500;
+
+    /** Upper bound on batches per run, so one run never monopolizes the database. */
+    private int maxBatchesPerRun = 200;
+}
@@ -0,0 +1,25 @@
+package com.servicehub.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Deadlines for the booking lifecycle timers.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.bookings")
+@Data
+public class BookingLifecycleProperties {
+
+    /** A PENDING booking is cancelled if the provider has not answered by then (or by its start, if sooner). */
+    private Duration pendingTtl = Duration.ofHours(24);
+
+    /** How long before a CONFIRMED booking starts its participants are reminded. */
+    private Duration reminderLead = Duration.ofHours(1);
+
+    /** An IN_PROGRESS booking is completed automatically this long after its scheduled end. */
+    private Duration autoCloseGrace = Duration.ofHours(12);
+}
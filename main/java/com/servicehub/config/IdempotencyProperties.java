@@ -0,0 +1,28 @@
+package com.servicehub.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * {@code Idempotency-Key} handling for booking creation and payments.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.idempotency")
+@Data
+public class IdempotencyProperties {
+
+    /** How long a key and its stored response are honoured. */
+    private Duration ttl = Duration.ofHours(24);
+
+    /** Completed responses also kept in memory (most recently used). */
+    private int cacheSize = 10_000;
+
+    /** How long a duplicate waits for the in-flight original on this instance. */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    /** An IN_PROGRESS row older than this is treated as abandoned (its instance died) and retaken. */
+    private Duration lease = Duration.ofMinutes(2);
+}
@@ -0,0 +1,45 @@
+package com.servicehub.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tunables for provider ranking. Each profile is a set of weights applied to the
+ * normalized score vector; pick one per request with {@code ?rank=<profile>}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.ranking")
+@Data
+public class RankingProperties {
+
+    /** Pseudo-review count pulling sparse ratings toward the platform mean. */
+    private double priorWeight = 5;
+
+    /** Hourly rate that scores 0.5 on the price axis. */
+    private double referenceRate = 500;
+
+    /** Window for the "recent completed bookings" popularity signal. */
+    private int recentDays = 30;
+
+    private Map<String, Weights> profiles = new LinkedHashMap<>(Map.of(
+            "balanced",    new Weights(0.45, 0.15, 0.15, 0.20, 0.05),
+            "top_rated",   new Weights(0.75, 0.00, 0.10, 0.15, 0.00),
+            "budget",      new Weights(0.25, 0.60, 0.05, 0.10, 0.00),
+            "experienced", new Weights(0.30, 0.05, 0.55, 0.10, 0.00)
+    ));
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class Weights {
+        private double rating;
+        private double price;
+        private double experience;
+        private double popularity;
+        private double availability;
+    }
+}
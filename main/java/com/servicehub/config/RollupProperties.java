@@ -0,0 +1,22 @@
+package com.servicehub.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Hourly and daily booking/revenue rollups behind the admin analytics charts.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rollups")
+@Data
+public class RollupProperties {
+
+    /** Days before today that the startup catch-up fills in when they have no daily rollups. */
+    private int backfillDays = 90;
+
+    /** Hourly rows older than this are pruned nightly; daily rows are kept. */
+    private Duration hourlyRetention = Duration.ofDays(14);
+}
@@ -2,15 +2,27 @@ package com.servicehub.controller;
 
 import com.servicehub.dto.PaymentDTOs;
 import com.servicehub.dto.ServiceHubDTOs.*;
+import com.servicehub.service.AdminExportService;
 import com.servicehub.service.AdminService;
+import com.servicehub.service.BookingRollups;
+import com.servicehub.service.BookingService;
 import com.servicehub.service.PaymentService;
+import com.servicehub.service.RatingRepairJob;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -19,6 +31,10 @@ import org.springframework.web.bind.annotation.*;
 public class AdminController {
 
     private final AdminService adminService;
+    private final BookingService bookingService;
+    private final RatingRepairJob ratingRepairJob;
+    private final BookingRollups bookingRollups;
+    private final AdminExportService exportService;
     PaymentService paymentService;
 
     @GetMapping("/stats")
@@ -48,10 +64,99 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.ok("User status updated"));
     }
 
+    @GetMapping("/users")
+    public ResponseEntity<Page<AdminUserResponse>> getUsers(
+            @ModelAttribute AdminUserFilter filter,
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(adminService.getUsers(filter, pageable));
+    }
+
     @GetMapping("/bookings")
     public ResponseEntity<Page<BookingResponse>> getAllBookings(
+            @ModelAttribute AdminBookingFilter filter,
             @PageableDefault(size = 20) Pageable pageable) {
-        return ResponseEntity.ok(adminService.getAllBookings(pageable));
+        return ResponseEntity.ok(adminService.getAllBookings(filter, pageable));
+    }
+
+    @GetMapping("/bookings/scroll")
+    public ResponseEntity<CursorPage<BookingResponse>> scrollAllBookings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(adminService.scrollAllBookings(cursor, size));
+    }
+
+    @PatchMapping("/bookings/status")
+    public ResponseEntity<BulkBookingStatusResponse> updateBookingStatuses(
+            @Valid @RequestBody BulkBookingStatusRequest req) {
+        return ResponseEntity.ok(bookingService.updateBookingStatuses(req, null));
+    }
+
+    @PostMapping("/ratings/repair")
+    public ResponseEntity<RatingRepairReport> startRatingRepair() {
+        return ResponseEntity.accepted().body(ratingRepairJob.start());
+    }
+
+    @GetMapping("/ratings/repair")
+    public ResponseEntity<RatingRepairReport> getRatingRepair() {
+        return ResponseEntity.ok(ratingRepairJob.report());
+    }
+
+    @GetMapping("/analytics/bookings")
+    public ResponseEntity<List<AnalyticsPoint>> getBookingAnalytics(
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "none") String groupBy) {
+        return ResponseEntity.ok(bookingRollups.query(granularity, from, to, categoryId, city, groupBy));
+    }
+
+    @PostMapping("/analytics/rebuild")
+    public ResponseEntity<ApiResponse> rebuildAnalytics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int days = bookingRollups.rebuild(from, to);
+        return ResponseEntity.ok(ApiResponse.ok("Rebuilt rollups for " + days + " days"));
+    }
+
+    @GetMapping("/export/bookings")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status) {
+        AdminExportService.Format f = AdminExportService.Format.parse(format);
+        return attachment("bookings", f, exportService.bookings(f, from, to, status));
+    }
+
+    @GetMapping("/export/providers")
+    public ResponseEntity<StreamingResponseBody> exportProviders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status) {
+        AdminExportService.Format f = AdminExportService.Format.parse(format);
+        return attachment("providers", f, exportService.providers(f, from, to, status));
+    }
+
+    @GetMapping("/export/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status) {
+        AdminExportService.Format f = AdminExportService.Format.parse(format);
+        return attachment("users", f, exportService.users(f, from, to, status));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> attachment(String name, AdminExportService.Format format,
+                                                                    StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(name + "." + format.extension).build().toString())
+                .contentType(format.mediaType)
+                .body(body);
     }
 
     @PostMapping("/categories")
@@ -1,27 +1,46 @@
 package com.servicehub.controller;
 
-import com.servicehub.dto.ServiceHubDTOs.CategoryResponse;
-import com.servicehub.repository.ServiceCategoryRepository;
+import com.servicehub.service.CategoryCatalog;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/categories")
 @RequiredArgsConstructor
 public class CategoryController {
 
-    private final ServiceCategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
 
+    // Served from the pre-serialized snapshot; clients revalidate with If-None-Match
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getActiveCategories() {
-        return ResponseEntity.ok(
-            categoryRepository.findByIsActiveTrue().stream()
-                .map(CategoryResponse::from).toList()
-        );
+    public ResponseEntity<byte[]> getActiveCategories(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        CategoryCatalog.Snapshot catalog = categoryCatalog.current();
+        if (matches(ifNoneMatch, catalog.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(catalog.etag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(catalog.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalog.json());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
     }
 }
@@ -2,6 +2,7 @@ package com.servicehub.controller;
 
 import com.servicehub.dto.PaymentDTOs.*;
 import com.servicehub.security.UserDetailsImpl;
+import com.servicehub.service.IdempotencyService;
 import com.servicehub.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotency;
 
     /** Step 1: Initiate — get order details before showing payment UI */
     @PostMapping("/initiate/{bookingId}")
@@ -30,8 +32,10 @@ public class PaymentController {
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<PaymentResponse> process(
             @AuthenticationPrincipal UserDetailsImpl user,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody ProcessPaymentRequest req) {
-        return ResponseEntity.ok(paymentService.processPayment(user.getId(), req));
+        return idempotency.execute(user.getId(), "payment.process", idempotencyKey, req, PaymentResponse.class,
+                () -> ResponseEntity.ok(paymentService.processPayment(user.getId(), req)));
     }
 
     /** Get payment status for a booking */
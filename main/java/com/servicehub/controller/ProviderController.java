@@ -1,18 +1,31 @@
 package com.servicehub.controller;
 
+import com.servicehub.dto.AuthDTOs;
 import com.servicehub.dto.ServiceHubDTOs;
 import com.servicehub.dto.ServiceHubDTOs.*;
 import com.servicehub.security.UserDetailsImpl;
+import com.servicehub.service.AuthService;
+import com.servicehub.service.BookingEventHub;
 import com.servicehub.service.BookingService;
+import com.servicehub.service.ProviderFacetIndex;
 import com.servicehub.service.ProviderService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -20,14 +33,69 @@ public class ProviderController {
 
     private final ProviderService providerService;
     private final BookingService bookingService;
+    private final BookingEventHub bookingEventHub;
+    private final AuthService authService;
 
     // ---- Public ----
     @GetMapping("/api/providers/public")
     public ResponseEntity<Page<ProviderPublicResponse>> listProviders(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) String rank,
             @PageableDefault(size = 10) Pageable pageable) {
-        return ResponseEntity.ok(providerService.getApprovedProviders(categoryId, search, pageable));
+        return ResponseEntity.ok(providerService.getApprovedProviders(categoryId, search, rank, pageable));
+    }
+
+    @GetMapping("/api/providers/public/available")
+    public ResponseEntity<List<AvailableProviderResponse>> availableProviders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime to,
+            @RequestParam(required = false) Integer durationMinutes,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(providerService.getAvailableProviders(
+                date, from, to, durationMinutes, categoryId, city, limit));
+    }
+
+    @GetMapping("/api/providers/public/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(providerService.suggest(q, limit));
+    }
+
+    @GetMapping("/api/providers/public/facets")
+    public ResponseEntity<ProviderFacetsResponse> providerFacets(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String rateBand,
+            @RequestParam(required = false) String ratingBand,
+            @RequestParam(required = false) String search) {
+        return ResponseEntity.ok(providerService.getProviderFacets(
+                new ProviderFacetIndex.Filters(categoryId, city, rateBand, ratingBand), search));
+    }
+
+    @GetMapping("/api/providers/public/scroll")
+    public ResponseEntity<CursorPage<ProviderPublicResponse>> scrollProviders(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(providerService.scrollApprovedProviders(categoryId, cursor, size));
+    }
+
+    @GetMapping("/api/providers/public/nearby")
+    public ResponseEntity<List<NearbyProviderResponse>> nearbyProviders(
+            @AuthenticationPrincipal UserDetailsImpl user,
+            @RequestParam(required = false) Long addressId,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(providerService.getNearbyProviders(
+                user != null ? user.getId() : null, addressId, lat, lng, categoryId, radiusKm, limit));
     }
 
     @GetMapping("/api/providers/public/{id}")
@@ -41,6 +109,21 @@ public class ProviderController {
         return ResponseEntity.ok(providerService.getProviderReviews(id, pageable));
     }
 
+    @GetMapping("/api/providers/public/{id}/reviews/summary")
+    public ResponseEntity<ReviewSummaryResponse> getProviderReviewSummary(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int size) {
+        return ResponseEntity.ok(providerService.getReviewSummary(id, size));
+    }
+
+    @GetMapping("/api/providers/public/{id}/reviews/scroll")
+    public ResponseEntity<CursorPage<ReviewResponse>> scrollProviderReviews(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(providerService.scrollProviderReviews(id, cursor, size));
+    }
+
     // ---- Provider panel ----
     @GetMapping("/api/provider/profile")
     @PreAuthorize("hasRole('PROVIDER')")
@@ -57,6 +140,14 @@ public class ProviderController {
         return ResponseEntity.ok(providerService.updateProfile(user.getId(), req));
     }
 
+    @PutMapping("/api/provider/working-hours")
+    @PreAuthorize("hasRole('PROVIDER')")
+    public ResponseEntity<ProviderPublicResponse> updateWorkingHours(
+            @AuthenticationPrincipal UserDetailsImpl user,
+            @Valid @RequestBody UpdateWorkingHoursRequest req) {
+        return ResponseEntity.ok(providerService.updateWorkingHours(user.getId(), req));
+    }
+
     @GetMapping("/api/provider/bookings")
     @PreAuthorize("hasRole('PROVIDER')")
     public ResponseEntity<Page<BookingResponse>> getMyBookings(
@@ -65,6 +156,28 @@ public class ProviderController {
         return ResponseEntity.ok(bookingService.getProviderBookings(user.getId(), pageable));
     }
 
+    @GetMapping("/api/provider/bookings/scroll")
+    @PreAuthorize("hasRole('PROVIDER')")
+    public ResponseEntity<CursorPage<BookingResponse>> scrollMyBookings(
+            @AuthenticationPrincipal UserDetailsImpl user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(bookingService.scrollProviderBookings(user.getId(), cursor, size));
+    }
+
+    // EventSource cannot send the Authorization header; it opens the stream with ?token= from here
+    @PostMapping("/api/provider/bookings/events/token")
+    @PreAuthorize("hasRole('PROVIDER')")
+    public ResponseEntity<AuthDTOs.StreamTokenResponse> bookingEventsToken(@AuthenticationPrincipal UserDetailsImpl user) {
+        return ResponseEntity.ok(authService.issueStreamToken(user));
+    }
+
+    @GetMapping(value = "/api/provider/bookings/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('PROVIDER')")
+    public SseEmitter bookingEvents(@AuthenticationPrincipal UserDetailsImpl user) {
+        return bookingEventHub.subscribe(user.getId());
+    }
+
     @PatchMapping("/api/provider/bookings/{bookingId}/status")
     @PreAuthorize("hasRole('PROVIDER')")
     public ResponseEntity<BookingResponse> updateBookingStatus(
@@ -74,6 +187,14 @@ public class ProviderController {
         return ResponseEntity.ok(bookingService.updateBookingStatus(bookingId, status, user.getId(), true));
     }
 
+    @PatchMapping("/api/provider/bookings/status")
+    @PreAuthorize("hasRole('PROVIDER')")
+    public ResponseEntity<BulkBookingStatusResponse> updateBookingStatuses(
+            @AuthenticationPrincipal UserDetailsImpl user,
+            @Valid @RequestBody BulkBookingStatusRequest req) {
+        return ResponseEntity.ok(bookingService.updateBookingStatuses(req, user.getId()));
+    }
+
     @GetMapping("/city/{city}")
     public ResponseEntity<ServiceHubDTOs.ApiResponse> getProvidersByCity(@PathVariable String city) {
         return ResponseEntity.ok(ServiceHubDTOs.ApiResponse.ok(
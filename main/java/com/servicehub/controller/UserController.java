@@ -1,18 +1,24 @@
 package com.servicehub.controller;
 
+import com.servicehub.dto.AuthDTOs;
 import com.servicehub.dto.ServiceHubDTOs.*;
 import com.servicehub.security.UserDetailsImpl;
 import com.servicehub.service.AddressService;
+import com.servicehub.service.AuthService;
+import com.servicehub.service.BookingEventHub;
 import com.servicehub.service.BookingService;
+import com.servicehub.service.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -24,6 +30,9 @@ public class UserController {
 
     private final AddressService addressService;
     private final BookingService bookingService;
+    private final BookingEventHub bookingEventHub;
+    private final AuthService authService;
+    private final IdempotencyService idempotency;
 
     // ---- Addresses ----
     @GetMapping("/addresses")
@@ -58,8 +67,10 @@ public class UserController {
     @PostMapping("/bookings")
     public ResponseEntity<BookingResponse> createBooking(
             @AuthenticationPrincipal UserDetailsImpl user,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody CreateBookingRequest req) {
-        return ResponseEntity.status(201).body(bookingService.createBooking(user.getId(), req));
+        return idempotency.execute(user.getId(), "booking.create", idempotencyKey, req, BookingResponse.class,
+                () -> ResponseEntity.status(201).body(bookingService.createBooking(user.getId(), req)));
     }
 
     @GetMapping("/bookings")
@@ -69,6 +80,25 @@ public class UserController {
         return ResponseEntity.ok(bookingService.getUserBookings(user.getId(), pageable));
     }
 
+    @GetMapping("/bookings/scroll")
+    public ResponseEntity<CursorPage<BookingResponse>> scrollMyBookings(
+            @AuthenticationPrincipal UserDetailsImpl user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(bookingService.scrollUserBookings(user.getId(), cursor, size));
+    }
+
+    // EventSource cannot send the Authorization header; it opens the stream with ?token= from here
+    @PostMapping("/bookings/events/token")
+    public ResponseEntity<AuthDTOs.StreamTokenResponse> bookingEventsToken(@AuthenticationPrincipal UserDetailsImpl user) {
+        return ResponseEntity.ok(authService.issueStreamToken(user));
+    }
+
+    @GetMapping(value = "/bookings/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter bookingEvents(@AuthenticationPrincipal UserDetailsImpl user) {
+        return bookingEventHub.subscribe(user.getId());
+    }
+
     @PatchMapping("/bookings/{bookingId}/cancel")
     public ResponseEntity<BookingResponse> cancelBooking(
             @AuthenticationPrincipal UserDetailsImpl user,
@@ -4,6 +4,7 @@ import com.servicehub.entity.User;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 
 public class AuthDTOs {
@@ -47,6 +48,8 @@ public class AuthDTOs {
         private Double hourlyRate;
         private java.util.List<Long> serviceCategoryIds;
         private String credentialInfo;
+        private Double latitude;
+        private Double longitude;
     }
 
     @Data
@@ -75,4 +78,11 @@ public class AuthDTOs {
         @NotBlank
         private String refreshToken;
     }
+
+    @Data
+    @AllArgsConstructor
+    public static class StreamTokenResponse {
+        private String token;
+        private long expiresInMs;
+    }
 }
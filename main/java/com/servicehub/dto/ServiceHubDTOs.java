@@ -1,17 +1,24 @@
 package com.servicehub.dto;
 
 import com.servicehub.entity.*;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 public class ServiceHubDTOs {
 
@@ -36,6 +43,15 @@ public class ServiceHubDTOs {
     }
 
 
+    /** One slice of a keyset listing; pass {@code nextCursor} back to continue. No total count. */
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class CursorPage<T> {
+        private List<T> content;
+        private String nextCursor;
+        private boolean hasNext;
+    }
+
+
     @Data @Builder @NoArgsConstructor @AllArgsConstructor
     public static class AddressRequest {
         @NotBlank private String label;
@@ -102,6 +118,9 @@ public class ServiceHubDTOs {
         private String approvalStatus;
         private List<CategoryResponse> serviceCategories;
         private String profileImagePath;
+        private Double latitude;
+        private Double longitude;
+        private List<WorkingHoursEntry> workingHours;
 
         public static ProviderPublicResponse from(ServiceProvider sp) {
             return ProviderPublicResponse.builder()
@@ -120,10 +139,64 @@ public class ServiceHubDTOs {
                     .approvalStatus(sp.getApprovalStatus().name())
                     .serviceCategories(sp.getServiceCategories().stream().map(CategoryResponse::from).toList())
                     .profileImagePath(sp.getProfileImagePath())
+                    .latitude(sp.getLatitude())
+                    .longitude(sp.getLongitude())
+                    .workingHours(WorkingHoursEntry.fromSchedule(sp.getWorkingHours()))
                     .build();
         }
     }
 
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class WorkingHoursEntry {
+        @NotNull private DayOfWeek day;
+        @NotNull private LocalTime start;
+        @NotNull private LocalTime end;     // 00:00 = midnight
+
+        public static List<WorkingHoursEntry> fromSchedule(WeeklySchedule schedule) {
+            WeeklySchedule s = schedule != null ? schedule : WeeklySchedule.DEFAULT;
+            return s.toRanges().stream()
+                    .map(r -> new WorkingHoursEntry(r.day(), r.start(), r.end())).toList();
+        }
+    }
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class UpdateWorkingHoursRequest {
+        @NotNull private List<@Valid WorkingHoursEntry> hours;
+    }
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class AvailableProviderResponse {
+        private ProviderPublicResponse provider;
+        private LocalDate date;
+        private LocalTime freeFrom;
+    }
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class NearbyProviderResponse {
+        private ProviderPublicResponse provider;
+        private Double distanceKm;
+    }
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class SuggestionResponse {
+        private String type;    // PROVIDER / CITY / CATEGORY
+        private String text;
+        private Long id;        // provider or category id; null for cities
+    }
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class FacetValue {
+        private String value;   // what to pass back as the filter
+        private String label;
+        private long count;
+    }
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class ProviderFacetsResponse {
+        private long total;
+        private java.util.Map<String, List<FacetValue>> facets;
+    }
+
     @Data @Builder @NoArgsConstructor @AllArgsConstructor
     public static class ProviderWithCredentials {
         private Long id;
@@ -177,6 +250,8 @@ public class ServiceHubDTOs {
         private List<Long> serviceCategoryIds;
         private String credentialInfo;
         private Boolean isAvailable;
+        private Double latitude;
+        private Double longitude;
     }
 
 
@@ -186,6 +261,7 @@ public class ServiceHubDTOs {
         @NotNull private Long categoryId;
         @NotNull private Long addressId;
         @NotNull private LocalDateTime scheduledAt;
+        @Min(15) @Max(Booking.MAX_DURATION_MINUTES) private Integer durationMinutes;
         private String notes;
     }
 
@@ -197,6 +273,7 @@ public class ServiceHubDTOs {
         private String categoryName;
         private AddressResponse serviceAddress;
         private LocalDateTime scheduledAt;
+        private Integer durationMinutes;
         private String notes;
         private String status;
         private Double totalAmount;
@@ -212,6 +289,28 @@ public class ServiceHubDTOs {
                     .categoryName(b.getServiceCategory().getName())
                     .serviceAddress(AddressResponse.from(b.getServiceAddress()))
                     .scheduledAt(b.getScheduledAt())
+                    .durationMinutes(b.getDurationMinutes())
+                    .notes(b.getNotes())
+                    .status(b.getStatus().name())
+                    .totalAmount(b.getTotalAmount())
+                    .credentialsRevealed(b.getCredentialsRevealed())
+                    .createdAt(b.getCreatedAt())
+                    .build();
+            if (includeCredentials && b.getCredentialsRevealed()) {
+                r.setCredentialInfo(b.getProvider().getCredentialInfo());
+            }
+            return r;
+        }
+
+        public static BookingResponse from(ArchivedBooking b, boolean includeCredentials) {
+            BookingResponse r = BookingResponse.builder()
+                    .id(b.getId())
+                    .providerId(b.getProvider().getId())
+                    .providerName(b.getProvider().getUser().getFullName())
+                    .categoryName(b.getServiceCategory().getName())
+                    .serviceAddress(AddressResponse.from(b.getServiceAddress()))
+                    .scheduledAt(b.getScheduledAt())
+                    .durationMinutes(b.getDurationMinutes())
                     .notes(b.getNotes())
                     .status(b.getStatus().name())
                     .totalAmount(b.getTotalAmount())
@@ -226,6 +325,53 @@ public class ServiceHubDTOs {
     }
 
 
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class BookingEvent {
+        public static final String CREATED = "CREATED";
+        public static final String STATUS_CHANGED = "STATUS_CHANGED";
+        public static final String REVIEWED = "REVIEWED";
+        public static final String REMINDER = "REMINDER";
+
+        private String type;
+        private Long bookingId;
+        private Long providerId;
+        private String status;
+        private LocalDateTime at;
+
+        public static BookingEvent of(String type, Long bookingId, Long providerId, Booking.BookingStatus status) {
+            return new BookingEvent(type, bookingId, providerId, status.name(), LocalDateTime.now());
+        }
+    }
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class BulkBookingStatusRequest {
+        @NotEmpty private List<@NotNull Long> bookingIds;
+        @NotBlank private String status;
+    }
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class BulkBookingOutcome {
+        private Long bookingId;
+        private boolean updated;
+        private String status;  // status after the call; null if the booking is missing or not yours
+        private String error;   // why the booking was left unchanged
+
+        public static BulkBookingOutcome applied(Long bookingId, Booking.BookingStatus status) {
+            return new BulkBookingOutcome(bookingId, true, status.name(), null);
+        }
+
+        public static BulkBookingOutcome rejected(Long bookingId, Booking.BookingStatus status, String error) {
+            return new BulkBookingOutcome(bookingId, false, status != null ? status.name() : null, error);
+        }
+    }
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class BulkBookingStatusResponse {
+        private String status;
+        private int updated;
+        private List<BulkBookingOutcome> results;   // one per distinct id, in request order
+    }
+
     @Data @Builder @NoArgsConstructor @AllArgsConstructor
     public static class CreateReviewRequest {
         @NotNull private Long bookingId;
@@ -253,6 +399,83 @@ public class ServiceHubDTOs {
     }
 
 
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class ReviewSummaryResponse {
+        private Long providerId;
+        private Double avgRating;
+        private Integer totalRatings;
+        private List<Integer> histogram;            // review counts for 1..5 stars
+        private CursorPage<ReviewResponse> recent;  // newest first; continue with /reviews/scroll
+    }
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class AnalyticsPoint {
+        private LocalDateTime bucket;        // start of the hour or day
+        private Long categoryId;             // set when grouped by category
+        private String city;                 // set when grouped by city
+        private Map<String, Long> events;    // CREATED, CONFIRMED, ..., COMPLETED, CANCELLED, PAID, REFUNDED
+        private double revenue;              // paid minus refunded
+    }
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class RatingRepairReport {
+        private String state;                // IDLE, RUNNING, COMPLETED or FAILED
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private int partitions;
+        private int partitionsDone;
+        private long providersScanned;
+        private long providersRepaired;
+        private long ratingCountDrift;       // sum of |stored - actual| review counts over repaired providers
+        private double maxAvgDrift;          // largest |stored - actual| average seen
+        private String error;
+    }
+
+    // Query parameters of GET /api/admin/bookings; every field is optional
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class AdminBookingFilter {
+        private String status;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) private LocalDate from;   // scheduled on or after
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) private LocalDate to;     // scheduled on or before
+        private String city;
+        private Long categoryId;
+        private Long providerId;
+        private Long userId;
+    }
+
+    // Query parameters of GET /api/admin/users; every field is optional
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class AdminUserFilter {
+        private String role;
+        private String status;
+        private String email;                                                    // prefix
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) private LocalDate from;   // registered on or after
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) private LocalDate to;     // registered on or before
+    }
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class AdminUserResponse {
+        private Long id;
+        private String fullName;
+        private String email;
+        private String phone;
+        private String role;
+        private String status;
+        private LocalDateTime createdAt;
+
+        public static AdminUserResponse from(User u) {
+            return AdminUserResponse.builder()
+                    .id(u.getId())
+                    .fullName(u.getFullName())
+                    .email(u.getEmail())
+                    .phone(u.getPhone())
+                    .role(u.getRole().name())
+                    .status(u.getStatus().name())
+                    .createdAt(u.getCreatedAt())
+                    .build();
+        }
+    }
+
     @Data @Builder @NoArgsConstructor @AllArgsConstructor
     public static class AdminStats {
         private long totalUsers;
@@ -0,0 +1,74 @@
+package com.servicehub.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A terminal booking moved out of {@code bookings} by the archival job. Same
+ * columns and id as the live row; only read by the history listings.
+ */
+@Entity
+@Table(name = "bookings_archive", indexes = {
+        @Index(name = "idx_bookings_archive_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_bookings_archive_provider_created", columnList = "provider_id, created_at, id"),
+        @Index(name = "idx_bookings_archive_created", columnList = "created_at, id")
+})
+@NamedEntityGraph(name = ArchivedBooking.LISTING_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "provider", subgraph = "provider"),
+                @NamedAttributeNode("serviceCategory"),
+                @NamedAttributeNode("serviceAddress")
+        },
+        subgraphs = @NamedSubgraph(name = "provider", attributeNodes = @NamedAttributeNode("user")))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ArchivedBooking {
+
+    public static final String LISTING_GRAPH = "ArchivedBooking.listing";
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "provider_id", nullable = false)
+    private ServiceProvider provider;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    private ServiceCategory serviceCategory;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "address_id", nullable = false)
+    private Address serviceAddress;
+
+    @Column(nullable = false)
+    private LocalDateTime scheduledAt;
+
+    @Column(nullable = false)
+    private Integer durationMinutes;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Booking.BookingStatus status;
+
+    @Column
+    private Double totalAmount;
+
+    @Column(nullable = false)
+    private Boolean credentialsRevealed;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,52 @@
+package com.servicehub.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Payment of an archived booking, copied column for column from {@code payments}. */
+@Entity
+@Table(name = "payments_archive", indexes = {
+        @Index(name = "idx_payments_archive_booking", columnList = "booking_id")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ArchivedPayment {
+
+    @Id
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private String transactionId;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Payment.PaymentStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Payment.PaymentMethod method;
+
+    private String upiId;
+    private String cardLast4;
+    private String cardNetwork;
+    private String bankName;
+    private String gatewayResponse;
+
+    @Column(nullable = false)
+    private Boolean refundEligible;
+
+    private LocalDateTime paidAt;
+    private LocalDateTime refundedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
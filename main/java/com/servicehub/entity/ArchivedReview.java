@@ -0,0 +1,39 @@
+package com.servicehub.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Review of an archived booking; kept as plain ids since the booking row has moved. */
+@Entity
+@Table(name = "reviews_archive", indexes = {
+        @Index(name = "idx_reviews_archive_provider", columnList = "provider_id"),
+        @Index(name = "idx_reviews_archive_booking", columnList = "booking_id")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ArchivedReview {
+
+    @Id
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    @Column(nullable = false)
+    private Integer rating;
+
+    @Column(length = 1000)
+    private String comment;
+
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
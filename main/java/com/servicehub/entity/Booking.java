@@ -7,13 +7,44 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_bookings_provider_created", columnList = "provider_id, created_at, id"),
+        @Index(name = "idx_bookings_created", columnList = "created_at, id"),
+        @Index(name = "idx_bookings_status_updated", columnList = "status, updated_at"),
+        // Admin filters: status / provider / category, each narrowed by the scheduled date
+        @Index(name = "idx_bookings_status_scheduled", columnList = "status, scheduled_at"),
+        @Index(name = "idx_bookings_provider_status", columnList = "provider_id, status, scheduled_at"),
+        @Index(name = "idx_bookings_category_status", columnList = "category_id, status, scheduled_at")
+}, uniqueConstraints = {
+        // Rejects two live bookings of a provider with the same start only; overlaps are checked by BookingSlotIndex
+        @UniqueConstraint(name = "uk_bookings_provider_active_slot", columnNames = {"provider_id", "active_slot"})
+})
 @EntityListeners(AuditingEntityListener.class)
+// Everything BookingResponse.from touches, fetched with the booking row
+@NamedEntityGraph(name = Booking.LISTING_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "provider", subgraph = "provider"),
+                @NamedAttributeNode("serviceCategory"),
+                @NamedAttributeNode("serviceAddress")
+        },
+        subgraphs = @NamedSubgraph(name = "provider", attributeNodes = @NamedAttributeNode("user")))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Booking {
 
+    public static final String LISTING_GRAPH = "Booking.listing";
+    public static final int DEFAULT_DURATION_MINUTES = 60;
+    public static final int MAX_DURATION_MINUTES = 12 * 60;
+
+    public LocalDateTime getEndsAt() {
+        int minutes = durationMinutes != null && durationMinutes > 0 ? durationMinutes : DEFAULT_DURATION_MINUTES;
+        return scheduledAt.plusMinutes(minutes);
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -37,6 +68,14 @@ public class Booking {
     @Column(nullable = false)
     private LocalDateTime scheduledAt;
 
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer durationMinutes = DEFAULT_DURATION_MINUTES;
+
+    // Mirrors scheduledAt while the booking holds the slot, null once it is released
+    @Column(name = "active_slot")
+    private LocalDateTime activeSlot;
+
     @Column(length = 500)
     private String notes;
 
@@ -53,8 +92,8 @@ public class Booking {
     @Builder.Default
     private Boolean credentialsRevealed = false;
 
-    @OneToOne(mappedBy = "booking", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Review review;
+    // No inverse mapping to Review: Review owns booking_id, and without bytecode enhancement an
+    // inverse @OneToOne is loaded eagerly, one extra SELECT per booking. Use ReviewRepository instead.
 
     @CreatedDate
     @Column(updatable = false)
@@ -69,6 +108,33 @@ public class Booking {
         IN_PROGRESS,   // Service is ongoing
         COMPLETED,     // Service done
         CANCELLED,     // Cancelled by user or provider
-        REJECTED       // Provider rejected
+        REJECTED;      // Provider rejected
+
+        // Allowed next statuses; terminal statuses have none
+        private Set<BookingStatus> next;
+
+        static {
+            PENDING.next = EnumSet.of(CONFIRMED, REJECTED, CANCELLED);
+            CONFIRMED.next = EnumSet.of(IN_PROGRESS, COMPLETED, CANCELLED);
+            IN_PROGRESS.next = EnumSet.of(COMPLETED);
+        }
+
+        /** Whether a booking in this status occupies the provider's time slot. */
+        public boolean holdsSlot() {
+            return this == PENDING || this == CONFIRMED || this == IN_PROGRESS;
+        }
+
+        public boolean canTransitionTo(BookingStatus target) {
+            return next != null && next.contains(target);
+        }
+
+        /** Statuses from which {@code target} may be reached. */
+        public static Set<BookingStatus> sourcesOf(BookingStatus target) {
+            Set<BookingStatus> sources = EnumSet.noneOf(BookingStatus.class);
+            for (BookingStatus s : values()) {
+                if (s.canTransitionTo(target)) sources.add(s);
+            }
+            return sources;
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.servicehub.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated booking and payment activity for the admin charts: how many
+ * events of each kind happened per hour or day, category and provider city, and
+ * the payment amount involved. Rows only ever grow; see {@code BookingRollups}.
+ */
+@Entity
+@Table(name = "booking_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_booking_rollups_cell",
+                columnNames = {"granularity", "bucket_start", "category_id", "city", "status"})
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class BookingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    // Provider city; empty when unknown so the unique key stays total
+    @Column(nullable = false, length = 100)
+    private String city;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Event status;
+
+    @Column(name = "event_count", nullable = false)
+    private Long eventCount;
+
+    // Payment amount for PAID / REFUNDED, zero otherwise
+    @Column(nullable = false)
+    private Double amount;
+
+    public enum Granularity {
+        HOUR,
+        DAY
+    }
+
+    /** A booking entering a status (CREATED for new bookings), or a payment being taken or refunded. */
+    public enum Event {
+        CREATED,
+        CONFIRMED,
+        REJECTED,
+        IN_PROGRESS,
+        COMPLETED,
+        CANCELLED,
+        PAID,
+        REFUNDED;
+
+        public static Event of(Booking.BookingStatus status) {
+            return status == Booking.BookingStatus.PENDING ? CREATED : valueOf(status.name());
+        }
+    }
+}
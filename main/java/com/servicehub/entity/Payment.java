@@ -1,5 +1,6 @@
 package com.servicehub.entity;
 
+import com.servicehub.service.PaymentRollupListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
@@ -10,7 +11,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "payments")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PaymentRollupListener.class})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Payment {
 
@@ -64,6 +65,10 @@ public class Payment {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    // Status as last read or written, so PaymentRollupListener sees transitions
+    @Transient
+    private PaymentStatus loadedStatus;
+
     public enum PaymentStatus {
         PENDING,
         SUCCESS,
@@ -0,0 +1,44 @@
+package com.servicehub.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Number of 1- to 5-star reviews of a provider, kept next to the running
+ * rating sum and updated by the same statement.
+ */
+@Embeddable
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class RatingHistogram {
+
+    @Column(name = "ratings_1")
+    private Integer oneStar;
+
+    @Column(name = "ratings_2")
+    private Integer twoStar;
+
+    @Column(name = "ratings_3")
+    private Integer threeStar;
+
+    @Column(name = "ratings_4")
+    private Integer fourStar;
+
+    @Column(name = "ratings_5")
+    private Integer fiveStar;
+
+    public static RatingHistogram empty() {
+        return new RatingHistogram(0, 0, 0, 0, 0);
+    }
+
+    /** Counts for 1..5 stars, in that order. */
+    public List<Integer> counts() {
+        return List.of(orZero(oneStar), orZero(twoStar), orZero(threeStar), orZero(fourStar), orZero(fiveStar));
+    }
+
+    private static int orZero(Integer n) {
+        return n != null ? n : 0;
+    }
+}
@@ -11,7 +11,9 @@ import java.util.List;
 
 
 @Entity
-@Table(name = "service_providers")
+@Table(name = "service_providers", indexes = {
+        @Index(name = "idx_providers_approval_rating", columnList = "approval_status, avg_rating, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class ServiceProvider {
@@ -57,6 +59,16 @@ public class ServiceProvider {
     @Builder.Default
     private Integer totalRatings = 0;
 
+    // Sum of all ratings, so avgRating = ratingSum / totalRatings can be kept with a relative UPDATE.
+    // Null only on rows older than the column, until ProviderRatings backfills them at startup.
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    // Null on rows older than the histogram columns, until ProviderRatings backfills them
+    @Embedded
+    @Builder.Default
+    private RatingHistogram ratingHistogram = RatingHistogram.empty();
+
     @Column(nullable = false)
     @Builder.Default
     private Boolean isAvailable = true;
@@ -87,6 +99,18 @@ public class ServiceProvider {
     @Column(nullable = false)
     private String city;
 
+    // Service location, used for "providers near me"
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
+    // Weekly working hours as half-hour masks; null means WeeklySchedule.DEFAULT
+    @Convert(converter = WeeklyScheduleConverter.class)
+    @Column(length = 120)
+    private WeeklySchedule workingHours;
+
 
     public enum ApprovalStatus {
         PENDING, APPROVED, REJECTED
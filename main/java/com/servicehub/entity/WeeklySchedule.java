@@ -0,0 +1,112 @@
+package com.servicehub.entity;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A provider's weekly working hours as one 48-bit mask per weekday,
+ * bit {@code i} meaning "works during [i * 30min, (i + 1) * 30min)".
+ * Immutable; persisted as a short string by {@link WeeklyScheduleConverter}.
+ */
+public final class WeeklySchedule {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final long FULL_DAY = (1L << SLOTS_PER_DAY) - 1;
+
+    /** Used for providers who have not published hours: Mon–Sat, 09:00–18:00. */
+    public static final WeeklySchedule DEFAULT;
+
+    static {
+        long[] masks = new long[7];
+        long nineToSix = mask(LocalTime.of(9, 0), LocalTime.of(18, 0));
+        for (int d = 0; d < 6; d++) masks[d] = nineToSix;
+        DEFAULT = new WeeklySchedule(masks);
+    }
+
+    private final long[] masks; // index 0 = Monday
+
+    private WeeklySchedule(long[] masks) {
+        this.masks = masks;
+    }
+
+    public record Range(DayOfWeek day, LocalTime start, LocalTime end) {}
+
+    public static WeeklySchedule of(List<Range> ranges) {
+        long[] masks = new long[7];
+        for (Range r : ranges) {
+            if (r.day() == null || r.start() == null || r.end() == null) {
+                throw new IllegalArgumentException("Working hours need a day, start and end");
+            }
+            masks[r.day().getValue() - 1] |= mask(r.start(), r.end());
+        }
+        return new WeeklySchedule(masks);
+    }
+
+    public long mask(DayOfWeek day) {
+        return masks[day.getValue() - 1];
+    }
+
+    /** Contiguous working periods, in day order; an end of 00:00 means midnight. */
+    public List<Range> toRanges() {
+        List<Range> ranges = new ArrayList<>();
+        for (int d = 0; d < 7; d++) {
+            long m = masks[d];
+            int i = 0;
+            while (i < SLOTS_PER_DAY) {
+                if ((m & (1L << i)) == 0) { i++; continue; }
+                int start = i;
+                while (i < SLOTS_PER_DAY && (m & (1L << i)) != 0) i++;
+                ranges.add(new Range(DayOfWeek.of(d + 1), timeOf(start), timeOf(i % SLOTS_PER_DAY)));
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Slots touched by [from, to) within one day. {@code to} at or before {@code from}
+     * (e.g. 00:00) is read as "until midnight".
+     */
+    public static long mask(LocalTime from, LocalTime to) {
+        int first = (from.getHour() * 60 + from.getMinute()) / SLOT_MINUTES;
+        int endMinute = to.getHour() * 60 + to.getMinute() + (to.getSecond() > 0 || to.getNano() > 0 ? 1 : 0);
+        int last = !to.isAfter(from) ? SLOTS_PER_DAY : (endMinute + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        if (last <= first) return 0;
+        long bits = last - first >= 64 ? -1L : (1L << (last - first)) - 1;
+        return (bits << first) & FULL_DAY;
+    }
+
+    public static LocalTime timeOf(int slot) {
+        return LocalTime.of(0, 0).plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    String encode() {
+        StringBuilder sb = new StringBuilder();
+        for (int d = 0; d < 7; d++) {
+            if (d > 0) sb.append(',');
+            sb.append(Long.toHexString(masks[d]));
+        }
+        return sb.toString();
+    }
+
+    static WeeklySchedule decode(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 7) throw new IllegalArgumentException("Bad working hours value: " + value);
+        long[] masks = new long[7];
+        for (int d = 0; d < 7; d++) masks[d] = Long.parseLong(parts[d], 16) & FULL_DAY;
+        return new WeeklySchedule(masks);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WeeklySchedule other && Arrays.equals(masks, other.masks);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(masks);
+    }
+}
@@ -0,0 +1,18 @@
+package com.servicehub.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class WeeklyScheduleConverter implements AttributeConverter<WeeklySchedule, String> {
+
+    @Override
+    public String convertToDatabaseColumn(WeeklySchedule schedule) {
+        return schedule != null ? schedule.encode() : null;
+    }
+
+    @Override
+    public WeeklySchedule convertToEntityAttribute(String value) {
+        return value != null && !value.isBlank() ? WeeklySchedule.decode(value) : null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.servicehub.repository;
+
+import com.servicehub.entity.Booking;
+import com.servicehub.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Predicates behind the admin booking and user filters. Each returns null when its
+ * argument is null, so callers can chain them with {@code and} and unset filters
+ * drop out. The composite indexes on {@code bookings}, {@code users} and
+ * {@code addresses} are laid out for these predicates.
+ */
+public final class AdminSpecifications {
+
+    private AdminSpecifications() {}
+
+    // ---- Bookings ----
+    public static Specification<Booking> bookingStatus(Booking.BookingStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Booking> scheduledFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("scheduledAt"), from);
+    }
+
+    public static Specification<Booking> scheduledBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("scheduledAt"), to);
+    }
+
+    public static Specification<Booking> inCity(String city) {
+        return city == null ? null
+                : (root, query, cb) -> cb.equal(root.join("serviceAddress").get("city"), city);
+    }
+
+    public static Specification<Booking> inCategory(Long categoryId) {
+        return categoryId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("serviceCategory").get("id"), categoryId);
+    }
+
+    public static Specification<Booking> forProvider(Long providerId) {
+        return providerId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("provider").get("id"), providerId);
+    }
+
+    public static Specification<Booking> forUser(Long userId) {
+        return userId == null ? null : (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    // ---- Users ----
+    public static Specification<User> role(User.Role role) {
+        return role == null ? null : (root, query, cb) -> cb.equal(root.get("role"), role);
+    }
+
+    public static Specification<User> accountStatus(User.AccountStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    // A plain prefix LIKE, so the unique index on email serves it
+    public static Specification<User> emailStartsWith(String prefix) {
+        if (prefix == null) return null;
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("email"), pattern, '\\');
+    }
+
+    public static Specification<User> createdFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<User> createdBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+}
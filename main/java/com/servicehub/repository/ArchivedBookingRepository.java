@@ -0,0 +1,107 @@
+package com.servicehub.repository;
+
+import com.servicehub.entity.ArchivedBooking;
+import com.servicehub.entity.Booking;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    @EntityGraph(ArchivedBooking.LISTING_GRAPH)
+    Page<ArchivedBooking> findByUserId(Long userId, Pageable pageable);
+
+    @EntityGraph(ArchivedBooking.LISTING_GRAPH)
+    Page<ArchivedBooking> findByProviderId(Long providerId, Pageable pageable);
+
+    long countByUserId(Long userId);
+    long countByProviderId(Long providerId);
+
+    @Query("SELECT MAX(a.createdAt) FROM ArchivedBooking a")
+    LocalDateTime findNewestCreatedAt();
+
+    // ---- Keyset listings, same order and cursor as BookingRepository's ----
+    @EntityGraph(ArchivedBooking.LISTING_GRAPH)
+    @Query("SELECT a FROM ArchivedBooking a WHERE a.user.id = :userId " +
+           "AND (:afterId IS NULL OR a.createdAt < :afterCreatedAt " +
+           "OR (a.createdAt = :afterCreatedAt AND a.id < :afterId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    Slice<ArchivedBooking> scrollByUserId(@Param("userId") Long userId,
+                                          @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    @EntityGraph(ArchivedBooking.LISTING_GRAPH)
+    @Query("SELECT a FROM ArchivedBooking a WHERE a.provider.id = :providerId " +
+           "AND (:afterId IS NULL OR a.createdAt < :afterCreatedAt " +
+           "OR (a.createdAt = :afterCreatedAt AND a.id < :afterId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    Slice<ArchivedBooking> scrollByProviderId(@Param("providerId") Long providerId,
+                                              @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    // Same rows as BookingRepository.streamForExport, streamed the same way
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b.id, b.createdAt, b.updatedAt, b.status, b.scheduledAt, b.durationMinutes, b.totalAmount, " +
+           "u.id, u.fullName, u.email, p.id, pu.fullName, c.name, a.city " +
+           "FROM ArchivedBooking b JOIN b.user u JOIN b.provider p JOIN p.user pu " +
+           "JOIN b.serviceCategory c JOIN b.serviceAddress a " +
+           "WHERE b.createdAt >= :from AND b.createdAt < :to AND (:status IS NULL OR b.status = :status) " +
+           "ORDER BY b.createdAt, b.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("status") Booking.BookingStatus status);
+
+    // ---- Archival moves: copy into the *_archive tables, then delete children before the bookings ----
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, user_id, provider_id, category_id, address_id, scheduled_at, " +
+                   "duration_minutes, notes, status, total_amount, credentials_revealed, created_at, updated_at, archived_at) " +
+                   "SELECT id, user_id, provider_id, category_id, address_id, scheduled_at, duration_minutes, notes, " +
+                   "status, total_amount, credentials_revealed, created_at, updated_at, :now " +
+                   "FROM bookings WHERE id IN (:ids)", nativeQuery = true)
+    int copyBookings(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "INSERT INTO reviews_archive (id, booking_id, user_id, provider_id, rating, comment, created_at, archived_at) " +
+                   "SELECT id, booking_id, user_id, provider_id, rating, comment, created_at, :now " +
+                   "FROM reviews WHERE booking_id IN (:ids)", nativeQuery = true)
+    int copyReviews(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "INSERT INTO payments_archive (id, booking_id, transaction_id, amount, status, method, upi_id, " +
+                   "card_last4, card_network, bank_name, gateway_response, refund_eligible, paid_at, refunded_at, " +
+                   "created_at, updated_at, archived_at) " +
+                   "SELECT id, booking_id, transaction_id, amount, status, method, upi_id, card_last4, card_network, " +
+                   "bank_name, gateway_response, refund_eligible, paid_at, refunded_at, created_at, updated_at, :now " +
+                   "FROM payments WHERE booking_id IN (:ids)", nativeQuery = true)
+    int copyPayments(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM reviews WHERE booking_id IN (:ids)", nativeQuery = true)
+    int deleteReviews(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM payments WHERE booking_id IN (:ids)", nativeQuery = true)
+    int deletePayments(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM bookings WHERE id IN (:ids)", nativeQuery = true)
+    int deleteBookings(@Param("ids") Collection<Long> ids);
+}
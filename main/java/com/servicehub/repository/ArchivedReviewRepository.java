@@ -0,0 +1,18 @@
+package com.servicehub.repository;
+
+import com.servicehub.entity.ArchivedReview;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedReviewRepository extends JpaRepository<ArchivedReview, Long> {
+    // Rows of (providerId, rating, count) for provider ids in [fromId, toId)
+    @Query("SELECT r.providerId, r.rating, COUNT(r) FROM ArchivedReview r " +
+           "WHERE r.providerId >= :fromId AND r.providerId < :toId " +
+           "GROUP BY r.providerId, r.rating")
+    List<Object[]> countByProviderAndRating(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
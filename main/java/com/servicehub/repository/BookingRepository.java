@@ -1,17 +1,205 @@
 package com.servicehub.repository;
 
 import com.servicehub.entity.Booking;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+    @EntityGraph(Booking.LISTING_GRAPH)
     Page<Booking> findByUserId(Long userId, Pageable pageable);
+
+    @EntityGraph(Booking.LISTING_GRAPH)
     Page<Booking> findByProviderId(Long providerId, Pageable pageable);
+
+    @Override
+    @EntityGraph(Booking.LISTING_GRAPH)
+    Page<Booking> findAll(Pageable pageable);
+
+    // Admin filters; see AdminSpecifications
+    @EntityGraph(Booking.LISTING_GRAPH)
+    Page<Booking> findAll(Specification<Booking> spec, Pageable pageable);
+
+    @EntityGraph(Booking.LISTING_GRAPH)
+    Optional<Booking> findDetailedById(Long id);
+
+    // Unlocked read of the current status; the compare-and-set below decides whether it still holds
+    @Query("SELECT b.status FROM Booking b WHERE b.id = :id")
+    Optional<Booking.BookingStatus> findStatusById(@Param("id") Long id);
+
+    // Locking read of the latest committed status; a plain re-read would see the transaction's snapshot.
+    // Only used after a compare-and-set missed.
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT b.status FROM Booking b WHERE b.id = :id")
+    Optional<Booking.BookingStatus> findLatestStatusById(@Param("id") Long id);
+
+    // ---- Compare-and-set status transitions: 1 if applied, 0 if status/ownership did not match ----
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :to, " +
+           "b.credentialsRevealed = CASE WHEN :reveal = true THEN true ELSE b.credentialsRevealed END, " +
+           "b.activeSlot = CASE WHEN :release = true THEN NULL ELSE b.activeSlot END, " +
+           "b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.status IN :from " +
+           "AND b.provider.id = (SELECT sp.id FROM ServiceProvider sp WHERE sp.user.id = :actorUserId)")
+    int transitionAsProvider(@Param("id") Long id,
+                             @Param("actorUserId") Long actorUserId,
+                             @Param("from") Collection<Booking.BookingStatus> from,
+                             @Param("to") Booking.BookingStatus to,
+                             @Param("reveal") boolean reveal,
+                             @Param("release") boolean release,
+                             @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :to, " +
+           "b.activeSlot = CASE WHEN :release = true THEN NULL ELSE b.activeSlot END, " +
+           "b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.status IN :from AND b.user.id = :actorUserId")
+    int transitionAsUser(@Param("id") Long id,
+                         @Param("actorUserId") Long actorUserId,
+                         @Param("from") Collection<Booking.BookingStatus> from,
+                         @Param("to") Booking.BookingStatus to,
+                         @Param("release") boolean release,
+                         @Param("now") LocalDateTime now);
+
+    // ---- Bulk transitions: rows are locked first, so the set-based UPDATE applies to exactly the checked ids ----
+    // Rows of (id, providerId, status, userId, createdAt, scheduledAt, durationMinutes, categoryId);
+    // see BookingTransitions.Row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id, b.provider.id, b.status, b.user.id, b.createdAt, b.scheduledAt, b.durationMinutes, " +
+           "b.serviceCategory.id FROM Booking b WHERE b.id IN :ids")
+    List<Object[]> lockRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id, b.provider.id, b.status, b.user.id, b.createdAt, b.scheduledAt, b.durationMinutes, " +
+           "b.serviceCategory.id FROM Booking b WHERE b.id IN :ids")
+    List<Object[]> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Flat export rows (id, createdAt, updatedAt, status, scheduledAt, durationMinutes, totalAmount,
+     * userId, userName, userEmail, providerId, providerName, category, city), oldest first.
+     * A fetch size of Integer.MIN_VALUE makes MySQL Connector/J stream the result row by row
+     * instead of buffering it; the stream must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b.id, b.createdAt, b.updatedAt, b.status, b.scheduledAt, b.durationMinutes, b.totalAmount, " +
+           "u.id, u.fullName, u.email, p.id, pu.fullName, c.name, a.city " +
+           "FROM Booking b JOIN b.user u JOIN b.provider p JOIN p.user pu " +
+           "JOIN b.serviceCategory c JOIN b.serviceAddress a " +
+           "WHERE b.createdAt >= :from AND b.createdAt < :to AND (:status IS NULL OR b.status = :status) " +
+           "ORDER BY b.createdAt, b.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("status") Booking.BookingStatus status);
+
+    // Rows of (id, categoryId, providerId), used to key payment rollups
+    @Query("SELECT b.id, b.serviceCategory.id, b.provider.id FROM Booking b WHERE b.id IN :ids")
+    List<Object[]> findRollupKeysByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id, b.provider.id, b.status, b.user.id, b.createdAt, b.scheduledAt, b.durationMinutes, " +
+           "b.serviceCategory.id FROM Booking b WHERE b.status IN :statuses")
+    List<Object[]> findRowsByStatusIn(@Param("statuses") Collection<Booking.BookingStatus> statuses);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :to, " +
+           "b.credentialsRevealed = CASE WHEN :reveal = true THEN true ELSE b.credentialsRevealed END, " +
+           "b.activeSlot = CASE WHEN :release = true THEN NULL ELSE b.activeSlot END, " +
+           "b.updatedAt = :now " +
+           "WHERE b.id IN :ids AND b.status IN :from")
+    int transitionAll(@Param("ids") Collection<Long> ids,
+                      @Param("from") Collection<Booking.BookingStatus> from,
+                      @Param("to") Booking.BookingStatus to,
+                      @Param("reveal") boolean reveal,
+                      @Param("release") boolean release,
+                      @Param("now") LocalDateTime now);
+
+    // Terminal bookings last changed before the cutoff; the archival job takes them a batch at a time
+    @Query("SELECT b.id FROM Booking b WHERE b.status IN :statuses AND b.updatedAt < :before")
+    List<Long> findArchivableIds(@Param("statuses") Collection<Booking.BookingStatus> statuses,
+                                 @Param("before") LocalDateTime before,
+                                 Pageable limit);
+
     List<Booking> findByProviderIdAndStatus(Long providerId, Booking.BookingStatus status);
-    long countByStatus(Booking.BookingStatus status);
+
+    // Rows of (status, count)
+    @Query("SELECT b.status, COUNT(b) FROM Booking b GROUP BY b.status")
+    List<Object[]> countGroupedByStatus();
+
+    /**
+     * Everything createBooking needs in one round trip: provider (with its user),
+     * address, category and whether the provider offers that category, as
+     * [ServiceProvider, Address, ServiceCategory, Boolean]. No row if any of the three is missing.
+     */
+    @Query("SELECT sp, a, c, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM ServiceProvider p JOIN p.serviceCategories pc " +
+           "WHERE p.id = sp.id AND pc.id = c.id) THEN true ELSE false END " +
+           "FROM ServiceProvider sp JOIN FETCH sp.user, Address a, ServiceCategory c " +
+           "WHERE sp.id = :providerId AND a.id = :addressId AND c.id = :categoryId")
+    List<Object[]> loadBookingContext(@Param("providerId") Long providerId,
+                                      @Param("categoryId") Long categoryId,
+                                      @Param("addressId") Long addressId);
+
+    // Rows of (bookingId, providerId, scheduledAt, durationMinutes), used to seed BookingSlotIndex
+    @Query("SELECT b.id, b.provider.id, b.scheduledAt, b.durationMinutes FROM Booking b " +
+           "WHERE b.status IN :statuses AND b.scheduledAt >= :from")
+    List<Object[]> findSlotsByStatusIn(@Param("statuses") Collection<Booking.BookingStatus> statuses,
+                                       @Param("from") LocalDateTime from);
+
+    // Rows of (providerId, day, count), used to seed ProviderRanking's popularity window
+    @Query("SELECT b.provider.id, CAST(b.updatedAt AS LocalDate), COUNT(b) FROM Booking b " +
+           "WHERE b.status = :status AND b.updatedAt >= :since " +
+           "GROUP BY b.provider.id, CAST(b.updatedAt AS LocalDate)")
+    List<Object[]> countDailyByStatusSince(@Param("status") Booking.BookingStatus status,
+                                           @Param("since") LocalDateTime since);
+
+    // ---- Keyset listings: newest first, (createdAt, id) as the cursor ----
+    @EntityGraph(Booking.LISTING_GRAPH)
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId " +
+           "AND (:afterId IS NULL OR b.createdAt < :afterCreatedAt " +
+           "OR (b.createdAt = :afterCreatedAt AND b.id < :afterId)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    Slice<Booking> scrollByUserId(@Param("userId") Long userId,
+                                  @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                  @Param("afterId") Long afterId,
+                                  Pageable pageable);
+
+    @EntityGraph(Booking.LISTING_GRAPH)
+    @Query("SELECT b FROM Booking b WHERE b.provider.id = :providerId " +
+           "AND (:afterId IS NULL OR b.createdAt < :afterCreatedAt " +
+           "OR (b.createdAt = :afterCreatedAt AND b.id < :afterId)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    Slice<Booking> scrollByProviderId(@Param("providerId") Long providerId,
+                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @EntityGraph(Booking.LISTING_GRAPH)
+    @Query("SELECT b FROM Booking b " +
+           "WHERE (:afterId IS NULL OR b.createdAt < :afterCreatedAt " +
+           "OR (b.createdAt = :afterCreatedAt AND b.id < :afterId)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    Slice<Booking> scrollAll(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                             @Param("afterId") Long afterId,
+                             Pageable pageable);
 }
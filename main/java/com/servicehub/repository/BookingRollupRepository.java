@@ -0,0 +1,72 @@
+package com.servicehub.repository;
+
+import com.servicehub.entity.BookingRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingRollupRepository extends JpaRepository<BookingRollup, Long> {
+
+    // Rows of (bucketStart, categoryId, city, status, eventCount, amount); optional filters are null when unused
+    @Query("SELECT r.bucketStart, r.categoryId, r.city, r.status, r.eventCount, r.amount FROM BookingRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "AND (:categoryId IS NULL OR r.categoryId = :categoryId) " +
+           "AND (:city IS NULL OR r.city = :city) " +
+           "ORDER BY r.bucketStart")
+    List<Object[]> findRange(@Param("granularity") BookingRollup.Granularity granularity,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to,
+                             @Param("categoryId") Long categoryId,
+                             @Param("city") String city);
+
+    @Query("SELECT DISTINCT r.bucketStart FROM BookingRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :from")
+    List<LocalDateTime> findBucketsSince(@Param("granularity") BookingRollup.Granularity granularity,
+                                         @Param("from") LocalDateTime from);
+
+    @Modifying
+    @Query("DELETE FROM BookingRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM BookingRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteBefore(@Param("granularity") BookingRollup.Granularity granularity,
+                     @Param("before") LocalDateTime before);
+
+    /**
+     * Recomputes hourly activity in [from, to) from bookings, payments and their archives:
+     * rows of (hour as 'yyyy-MM-dd HH:00:00', categoryId, city, status, eventCount, amount).
+     * Only a booking's creation and its current status are visible here, so intermediate
+     * transitions of rebuilt bookings are not counted.
+     */
+    @Query(value = "SELECT DATE_FORMAT(e.at, '%Y-%m-%d %H:00:00'), e.category_id, COALESCE(sp.city, ''), e.status, " +
+                   "COUNT(*), COALESCE(SUM(e.amount), 0) FROM (" +
+                   "SELECT created_at AS at, category_id, provider_id, 'CREATED' AS status, 0 AS amount " +
+                   "FROM bookings WHERE created_at >= :from AND created_at < :to " +
+                   "UNION ALL SELECT created_at, category_id, provider_id, 'CREATED', 0 " +
+                   "FROM bookings_archive WHERE created_at >= :from AND created_at < :to " +
+                   "UNION ALL SELECT updated_at, category_id, provider_id, status, 0 " +
+                   "FROM bookings WHERE status <> 'PENDING' AND updated_at >= :from AND updated_at < :to " +
+                   "UNION ALL SELECT updated_at, category_id, provider_id, status, 0 " +
+                   "FROM bookings_archive WHERE updated_at >= :from AND updated_at < :to " +
+                   "UNION ALL SELECT p.paid_at, b.category_id, b.provider_id, 'PAID', p.amount " +
+                   "FROM payments p JOIN bookings b ON b.id = p.booking_id WHERE p.paid_at >= :from AND p.paid_at < :to " +
+                   "UNION ALL SELECT p.paid_at, b.category_id, b.provider_id, 'PAID', p.amount " +
+                   "FROM payments_archive p JOIN bookings_archive b ON b.id = p.booking_id " +
+                   "WHERE p.paid_at >= :from AND p.paid_at < :to " +
+                   "UNION ALL SELECT p.refunded_at, b.category_id, b.provider_id, 'REFUNDED', p.amount " +
+                   "FROM payments p JOIN bookings b ON b.id = p.booking_id " +
+                   "WHERE p.refunded_at >= :from AND p.refunded_at < :to " +
+                   "UNION ALL SELECT p.refunded_at, b.category_id, b.provider_id, 'REFUNDED', p.amount " +
+                   "FROM payments_archive p JOIN bookings_archive b ON b.id = p.booking_id " +
+                   "WHERE p.refunded_at >= :from AND p.refunded_at < :to" +
+                   ") e JOIN service_providers sp ON sp.id = e.provider_id " +
+                   "GROUP BY 1, 2, 3, 4", nativeQuery = true)
+    List<Object[]> aggregateActivity(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -3,16 +3,37 @@ package com.servicehub.repository;
 import com.servicehub.entity.Review;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+    // ReviewResponse.from reads the reviewer's name
+    @EntityGraph(attributePaths = "user")
     Page<Review> findByProviderId(Long providerId, Pageable pageable);
+
     boolean existsByBookingId(Long bookingId);
 
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.provider.id = :providerId")
-    Double calculateAvgRating(@Param("providerId") Long providerId);
+    // Rows of (providerId, rating, count) for provider ids in [fromId, toId)
+    @Query("SELECT r.provider.id, r.rating, COUNT(r) FROM Review r " +
+           "WHERE r.provider.id >= :fromId AND r.provider.id < :toId " +
+           "GROUP BY r.provider.id, r.rating")
+    List<Object[]> countByProviderAndRating(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT r FROM Review r WHERE r.provider.id = :providerId " +
+           "AND (:afterId IS NULL OR r.createdAt < :afterCreatedAt " +
+           "OR (r.createdAt = :afterCreatedAt AND r.id < :afterId)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<Review> scrollByProviderId(@Param("providerId") Long providerId,
+                                     @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
 }
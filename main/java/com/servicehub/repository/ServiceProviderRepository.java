@@ -2,15 +2,25 @@ package com.servicehub.repository;
 
 import com.servicehub.entity.ServiceProvider;
 import com.servicehub.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ServiceProviderRepository extends JpaRepository<ServiceProvider, Long> {
@@ -22,17 +32,112 @@ public interface ServiceProviderRepository extends JpaRepository<ServiceProvider
            "JOIN sp.serviceCategories sc " +
            "WHERE sp.approvalStatus = 'APPROVED' " +
            "AND sp.isAvailable = true " +
-           "AND (:categoryId IS NULL OR sc.id = :categoryId) " +
-           "AND (:search IS NULL OR LOWER(sp.user.fullName) LIKE LOWER(CONCAT('%', :search, '%')) " +
-           "OR LOWER(sp.description) LIKE LOWER(CONCAT('%', :search, '%')))")
+           "AND (:categoryId IS NULL OR sc.id = :categoryId)")
     Page<ServiceProvider> findApprovedProviders(
             @Param("categoryId") Long categoryId,
-            @Param("search") String search,
             Pageable pageable
     );
 
+    // Keyset listing: best rated first, (avgRating, id) as the cursor
+    @Query("SELECT sp FROM ServiceProvider sp " +
+           "WHERE sp.approvalStatus = 'APPROVED' " +
+           "AND sp.isAvailable = true " +
+           "AND (:categoryId IS NULL OR EXISTS (SELECT 1 FROM ServiceProvider p JOIN p.serviceCategories sc " +
+           "WHERE p = sp AND sc.id = :categoryId)) " +
+           "AND (:afterId IS NULL OR sp.avgRating < :afterRating " +
+           "OR (sp.avgRating = :afterRating AND sp.id < :afterId)) " +
+           "ORDER BY sp.avgRating DESC, sp.id DESC")
+    Slice<ServiceProvider> scrollApprovedProviders(
+            @Param("categoryId") Long categoryId,
+            @Param("afterRating") Double afterRating,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT DISTINCT sp FROM ServiceProvider sp " +
+           "JOIN FETCH sp.user " +
+           "LEFT JOIN FETCH sp.serviceCategories")
+    List<ServiceProvider> findAllForIndexing();
+
     List<ServiceProvider> findByCityIgnoreCase(String city);
 
+    // Relative update, so concurrent reviews never overwrite each other. avgRating comes first
+    // because MySQL evaluates SET assignments left to right against the already-updated row.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ServiceProvider sp SET " +
+           "sp.avgRating = (sp.ratingSum + :rating) * 1.0 / (sp.totalRatings + 1), " +
+           "sp.ratingSum = sp.ratingSum + :rating, " +
+           "sp.totalRatings = sp.totalRatings + 1, " +
+           "sp.ratingHistogram.oneStar = sp.ratingHistogram.oneStar + CASE WHEN :rating = 1 THEN 1 ELSE 0 END, " +
+           "sp.ratingHistogram.twoStar = sp.ratingHistogram.twoStar + CASE WHEN :rating = 2 THEN 1 ELSE 0 END, " +
+           "sp.ratingHistogram.threeStar = sp.ratingHistogram.threeStar + CASE WHEN :rating = 3 THEN 1 ELSE 0 END, " +
+           "sp.ratingHistogram.fourStar = sp.ratingHistogram.fourStar + CASE WHEN :rating = 4 THEN 1 ELSE 0 END, " +
+           "sp.ratingHistogram.fiveStar = sp.ratingHistogram.fiveStar + CASE WHEN :rating = 5 THEN 1 ELSE 0 END " +
+           "WHERE sp.id = :id")
+    int addRating(@Param("id") Long id, @Param("rating") int rating);
+
+    @Modifying
+    @Query("UPDATE ServiceProvider sp SET sp.ratingSum = ROUND(sp.avgRating * sp.totalRatings, 0) " +
+           "WHERE sp.ratingSum IS NULL")
+    int backfillRatingSums();
+
+    // One-off fill for providers stored before the histogram existed, counting live and archived reviews
+    @Modifying
+    @Query("UPDATE ServiceProvider sp SET " +
+           "sp.ratingHistogram.oneStar = (SELECT COUNT(r) FROM Review r WHERE r.provider.id = sp.id AND r.rating = 1) " +
+           "+ (SELECT COUNT(a) FROM ArchivedReview a WHERE a.providerId = sp.id AND a.rating = 1), " +
+           "sp.ratingHistogram.twoStar = (SELECT COUNT(r) FROM Review r WHERE r.provider.id = sp.id AND r.rating = 2) " +
+           "+ (SELECT COUNT(a) FROM ArchivedReview a WHERE a.providerId = sp.id AND a.rating = 2), " +
+           "sp.ratingHistogram.threeStar = (SELECT COUNT(r) FROM Review r WHERE r.provider.id = sp.id AND r.rating = 3) " +
+           "+ (SELECT COUNT(a) FROM ArchivedReview a WHERE a.providerId = sp.id AND a.rating = 3), " +
+           "sp.ratingHistogram.fourStar = (SELECT COUNT(r) FROM Review r WHERE r.provider.id = sp.id AND r.rating = 4) " +
+           "+ (SELECT COUNT(a) FROM ArchivedReview a WHERE a.providerId = sp.id AND a.rating = 4), " +
+           "sp.ratingHistogram.fiveStar = (SELECT COUNT(r) FROM Review r WHERE r.provider.id = sp.id AND r.rating = 5) " +
+           "+ (SELECT COUNT(a) FROM ArchivedReview a WHERE a.providerId = sp.id AND a.rating = 5) " +
+           "WHERE sp.ratingHistogram.oneStar IS NULL")
+    int backfillRatingHistograms();
+
+
+    @Query("SELECT DISTINCT sp FROM ServiceProvider sp " +
+           "JOIN FETCH sp.user " +
+           "LEFT JOIN FETCH sp.serviceCategories " +
+           "WHERE sp.id IN :ids")
+    List<ServiceProvider> findForIndexingByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Rows of (id, city or ''), the city key used by the booking rollups
+    @Query("SELECT sp.id, COALESCE(sp.city, '') FROM ServiceProvider sp WHERE sp.id IN :ids")
+    List<Object[]> findCitiesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Single row of (min id, max id)
+    @Query("SELECT MIN(sp.id), MAX(sp.id) FROM ServiceProvider sp")
+    List<Object[]> findIdRange();
+
+    // Rows of (id, ratingSum, totalRatings, avgRating, 1..5 star counts) for ids in [fromId, toId),
+    // locked so no review can change them while they are recomputed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT sp.id, sp.ratingSum, sp.totalRatings, sp.avgRating, " +
+           "sp.ratingHistogram.oneStar, sp.ratingHistogram.twoStar, sp.ratingHistogram.threeStar, " +
+           "sp.ratingHistogram.fourStar, sp.ratingHistogram.fiveStar " +
+           "FROM ServiceProvider sp WHERE sp.id >= :fromId AND sp.id < :toId")
+    List<Object[]> lockRatingAggregates(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Export rows (id, userId, fullName, email, phone, city, approvalStatus, isAvailable, hourlyRate,
+    // experienceYears, avgRating, totalRatings, createdAt); streamed like BookingRepository.streamForExport
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT sp.id, u.id, u.fullName, u.email, u.phone, sp.city, sp.approvalStatus, sp.isAvailable, " +
+           "sp.hourlyRate, sp.experienceYears, sp.avgRating, sp.totalRatings, sp.createdAt " +
+           "FROM ServiceProvider sp JOIN sp.user u " +
+           "WHERE sp.createdAt >= :from AND sp.createdAt < :to " +
+           "AND (:status IS NULL OR sp.approvalStatus = :status) " +
+           "ORDER BY sp.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("status") ServiceProvider.ApprovalStatus status);
 
-    long countByApprovalStatus(ServiceProvider.ApprovalStatus status);
+    // Rows of (approvalStatus, count)
+    @Query("SELECT sp.approvalStatus, COUNT(sp) FROM ServiceProvider sp GROUP BY sp.approvalStatus")
+    List<Object[]> countGroupedByApprovalStatus();
 }
@@ -30,7 +30,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateToken(jwt)) {
+            boolean streamToken = false;
+            if (jwt == null && isEventStream(request)) {
+                jwt = request.getParameter("token");
+                streamToken = true;
+            }
+            // Stream tokens only open event streams; access tokens are never taken from the query string
+            if (jwt != null && jwtUtils.validateToken(jwt) && jwtUtils.isStreamToken(jwt) == streamToken) {
                 String email = jwtUtils.getUsernameFromToken(jwt);
                 UserDetails userDetails = userDetailsService.loadUserByUsername(email);
 
@@ -52,4 +58,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    // Browser EventSource cannot set headers, so these GETs may carry a stream token instead
+    private boolean isEventStream(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && request.getRequestURI().endsWith("/bookings/events")
+                && StringUtils.hasText(request.getParameter("token"));
+    }
 }
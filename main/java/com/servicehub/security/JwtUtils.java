@@ -18,6 +18,12 @@ public class JwtUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    // Stream tokens travel in a query string (EventSource cannot send headers), so they are
+    // short-lived and only accepted by the booking event streams
+    private static final long STREAM_TOKEN_EXPIRATION_MS = 60_000;
+    private static final String USE_CLAIM = "use";
+    private static final String STREAM_USE = "stream";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
@@ -44,6 +50,25 @@ public class JwtUtils {
         return buildToken(user.getEmail(), user.getRole().name(), refreshExpirationMs);
     }
 
+    public String generateStreamToken(UserDetailsImpl user) {
+        return Jwts.builder()
+                .subject(user.getUsername())
+                .claim("role", user.getRole().name())
+                .claim(USE_CLAIM, STREAM_USE)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + STREAM_TOKEN_EXPIRATION_MS))
+                .signWith(getSigningKey())
+                .compact();
+    }
+
+    public long getStreamTokenExpirationMs() {
+        return STREAM_TOKEN_EXPIRATION_MS;
+    }
+
+    public boolean isStreamToken(String token) {
+        return STREAM_USE.equals(parseClaims(token).get(USE_CLAIM));
+    }
+
     private String buildToken(String subject, String role, long expirationMs) {
         return Jwts.builder()
                 .subject(subject)
@@ -0,0 +1,179 @@
+package com.servicehub.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.servicehub.entity.Booking;
+import com.servicehub.entity.ServiceProvider;
+import com.servicehub.entity.User;
+import com.servicehub.exception.BadRequestException;
+import com.servicehub.repository.ArchivedBookingRepository;
+import com.servicehub.repository.BookingRepository;
+import com.servicehub.repository.ServiceProviderRepository;
+import com.servicehub.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Admin exports of bookings (live and archived), providers and users as CSV or
+ * NDJSON. Rows come from flat projections streamed by the driver and are written
+ * straight to the response, so memory stays constant however large the export.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdminExportService {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final List<String> BOOKING_COLUMNS = List.of("id", "created_at", "updated_at", "status",
+            "scheduled_at", "duration_minutes", "total_amount", "user_id", "user_name", "user_email",
+            "provider_id", "provider_name", "category", "city");
+    private static final List<String> PROVIDER_COLUMNS = List.of("id", "user_id", "full_name", "email", "phone",
+            "city", "approval_status", "available", "hourly_rate", "experience_years", "avg_rating",
+            "total_ratings", "created_at");
+    private static final List<String> USER_COLUMNS = List.of("id", "full_name", "email", "phone", "role",
+            "status", "created_at");
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ServiceProviderRepository providerRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON("ndjson", MediaType.APPLICATION_NDJSON);
+
+        public final String extension;
+        public final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public static Format parse(String value) {
+            return EnumParams.parse(Format.class, value, "format");
+        }
+    }
+
+    // Created-at window [start, end) from optional inclusive dates; validated before the response starts
+    private record Range(LocalDateTime start, LocalDateTime end) {
+        static Range of(LocalDate from, LocalDate to) {
+            Range range = new Range(from != null ? from.atStartOfDay() : EARLIEST,
+                    to != null ? to.plusDays(1).atStartOfDay() : LocalDateTime.now().plusDays(1));
+            if (!range.start.isBefore(range.end)) {
+                throw new BadRequestException("'from' must not be after 'to'");
+            }
+            return range;
+        }
+    }
+
+    /** Bookings created between the given dates (inclusive), live ones first, then the archive. */
+    public StreamingResponseBody bookings(Format format, LocalDate from, LocalDate to, String status) {
+        Booking.BookingStatus s = EnumParams.parseOptional(Booking.BookingStatus.class, status, "status");
+        Range r = Range.of(from, to);
+        return out -> export(out, format, BOOKING_COLUMNS, row -> {
+            // One stream at a time: a streaming result set occupies the connection until closed
+            try (Stream<Object[]> live = bookingRepository.streamForExport(r.start(), r.end(), s)) {
+                live.forEach(row);
+            }
+            try (Stream<Object[]> archived = archivedBookingRepository.streamForExport(r.start(), r.end(), s)) {
+                archived.forEach(row);
+            }
+        });
+    }
+
+    public StreamingResponseBody providers(Format format, LocalDate from, LocalDate to, String status) {
+        ServiceProvider.ApprovalStatus s = EnumParams.parseOptional(
+                ServiceProvider.ApprovalStatus.class, status, "status");
+        Range r = Range.of(from, to);
+        return out -> export(out, format, PROVIDER_COLUMNS, row -> {
+            try (Stream<Object[]> rows = providerRepository.streamForExport(r.start(), r.end(), s)) {
+                rows.forEach(row);
+            }
+        });
+    }
+
+    public StreamingResponseBody users(Format format, LocalDate from, LocalDate to, String status) {
+        User.AccountStatus s = EnumParams.parseOptional(User.AccountStatus.class, status, "status");
+        Range r = Range.of(from, to);
+        return out -> export(out, format, USER_COLUMNS, row -> {
+            try (Stream<Object[]> rows = userRepository.streamForExport(r.start(), r.end(), s)) {
+                rows.forEach(row);
+            }
+        });
+    }
+
+    // Runs the producer in a read-only transaction, writing each row as it arrives
+    private void export(OutputStream out, Format format, List<String> columns,
+                        Consumer<Consumer<Object[]>> producer) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writeCsv(writer, columns.toArray());
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            readOnly.executeWithoutResult(status -> producer.accept(row -> {
+                try {
+                    if (format == Format.CSV) writeCsv(writer, row);
+                    else writeJson(writer, columns, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();   // client went away
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writer.write(csv(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csv(Object value) {
+        if (value == null) return "";
+        String s = value instanceof Enum<?> e ? e.name() : value.toString();
+        // Text starting with a formula character (tab and CR included) is opened as a formula by spreadsheets
+        if (value instanceof String && !s.isEmpty() && "=+-@\t\r".indexOf(s.charAt(0)) >= 0) {
+            s = "'" + s;
+        }
+        if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+            return '"' + s.replace("\"", "\"\"") + '"';
+        }
+        return s;
+    }
+
+    private void writeJson(Writer writer, List<String> columns, Object[] values) throws IOException {
+        Map<String, Object> obj = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            obj.put(columns.get(i), values[i]);
+        }
+        writer.write(objectMapper.writeValueAsString(obj));
+        writer.write('\n');
+    }
+}
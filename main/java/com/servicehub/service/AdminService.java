@@ -5,14 +5,20 @@ import com.servicehub.entity.Booking;
 import com.servicehub.entity.ServiceCategory;
 import com.servicehub.entity.ServiceProvider;
 import com.servicehub.entity.User;
+import com.servicehub.exception.BadRequestException;
 import com.servicehub.exception.ResourceNotFoundException;
 import com.servicehub.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class AdminService {
@@ -21,17 +27,12 @@ public class AdminService {
     private final ServiceProviderRepository providerRepository;
     private final BookingRepository bookingRepository;
     private final ServiceCategoryRepository categoryRepository;
+    private final ProviderIndexer providerIndexer;
+    private final CategoryCatalog categoryCatalog;
+    private final AdminStatsRegistry stats;
 
     public AdminStats getDashboardStats() {
-        return AdminStats.builder()
-                .totalUsers(userRepository.countByRole(User.Role.USER))
-                .totalProviders(userRepository.countByRole(User.Role.PROVIDER))
-                .pendingProviderApprovals(providerRepository.countByApprovalStatus(ServiceProvider.ApprovalStatus.PENDING))
-                .totalBookings(bookingRepository.count())
-                .activeBookings(bookingRepository.countByStatus(Booking.BookingStatus.CONFIRMED) +
-                        bookingRepository.countByStatus(Booking.BookingStatus.IN_PROGRESS))
-                .completedBookings(bookingRepository.countByStatus(Booking.BookingStatus.COMPLETED))
-                .build();
+        return stats.snapshot();
     }
 
     public Page<ProviderPublicResponse> getAllProviders(Pageable pageable) {
@@ -42,10 +43,12 @@ public class AdminService {
     public ProviderPublicResponse approveProvider(Long providerId) {
         ServiceProvider provider = providerRepository.findById(providerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
+        stats.providerMoved(provider.getApprovalStatus(), ServiceProvider.ApprovalStatus.APPROVED);
         provider.setApprovalStatus(ServiceProvider.ApprovalStatus.APPROVED);
         provider.getUser().setStatus(User.AccountStatus.ACTIVE);
         userRepository.save(provider.getUser());
         providerRepository.save(provider);
+        providerIndexer.reindex(provider);
         return ProviderPublicResponse.from(provider);
     }
 
@@ -53,8 +56,10 @@ public class AdminService {
     public ProviderPublicResponse rejectProvider(Long providerId) {
         ServiceProvider provider = providerRepository.findById(providerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
+        stats.providerMoved(provider.getApprovalStatus(), ServiceProvider.ApprovalStatus.REJECTED);
         provider.setApprovalStatus(ServiceProvider.ApprovalStatus.REJECTED);
         providerRepository.save(provider);
+        providerIndexer.reindex(provider);
         return ProviderPublicResponse.from(provider);
     }
 
@@ -67,11 +72,59 @@ public class AdminService {
         userRepository.save(user);
     }
 
-    public Page<BookingResponse> getAllBookings(Pageable pageable) {
-        return bookingRepository.findAll(pageable)
+    public Page<BookingResponse> getAllBookings(AdminBookingFilter filter, Pageable pageable) {
+        Specification<Booking> spec = Specification
+                .where(AdminSpecifications.bookingStatus(
+                        EnumParams.parseOptional(Booking.BookingStatus.class, filter.getStatus(), "status")))
+                .and(AdminSpecifications.scheduledFrom(startOf(filter.getFrom())))
+                .and(AdminSpecifications.scheduledBefore(endOf(filter.getFrom(), filter.getTo())))
+                .and(AdminSpecifications.inCity(blankToNull(filter.getCity())))
+                .and(AdminSpecifications.inCategory(filter.getCategoryId()))
+                .and(AdminSpecifications.forProvider(filter.getProviderId()))
+                .and(AdminSpecifications.forUser(filter.getUserId()));
+        return bookingRepository.findAll(spec, pageable)
                 .map(b -> BookingResponse.from(b, false));
     }
 
+    public Page<AdminUserResponse> getUsers(AdminUserFilter filter, Pageable pageable) {
+        Specification<User> spec = Specification
+                .where(AdminSpecifications.role(EnumParams.parseOptional(User.Role.class, filter.getRole(), "role")))
+                .and(AdminSpecifications.accountStatus(
+                        EnumParams.parseOptional(User.AccountStatus.class, filter.getStatus(), "status")))
+                .and(AdminSpecifications.emailStartsWith(blankToNull(filter.getEmail())))
+                .and(AdminSpecifications.createdFrom(startOf(filter.getFrom())))
+                .and(AdminSpecifications.createdBefore(endOf(filter.getFrom(), filter.getTo())));
+        return userRepository.findAll(spec, pageable).map(AdminUserResponse::from);
+    }
+
+    public CursorPage<BookingResponse> scrollAllBookings(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return KeysetCursor.page(
+                bookingRepository.scrollAll(
+                        after != null ? after.timestamp() : null,
+                        after != null ? after.id() : null,
+                        PageRequest.of(0, KeysetCursor.clampSize(size))),
+                b -> BookingResponse.from(b, false),
+                b -> KeysetCursor.of(b.getCreatedAt(), b.getId()));
+    }
+
+    private static LocalDateTime startOf(LocalDate from) {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    // Exclusive upper bound for an inclusive 'to' date
+    private static LocalDateTime endOf(LocalDate from, LocalDate to) {
+        if (to == null) return null;
+        if (from != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        return to.plusDays(1).atStartOfDay();
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
     // Category Management
     @Transactional
     public CategoryResponse createCategory(String name, String description,
@@ -82,6 +135,7 @@ public class AdminService {
                 .type(ServiceCategory.CategoryType.valueOf(type))
                 .build();
         categoryRepository.save(cat);
+        categoryCatalog.refreshAfterCommit();
         return CategoryResponse.from(cat);
     }
 
@@ -91,5 +145,6 @@ public class AdminService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
         cat.setIsActive(!cat.getIsActive());
         categoryRepository.save(cat);
+        categoryCatalog.refreshAfterCommit();
     }
 }
@@ -0,0 +1,163 @@
+package com.servicehub.service;
+
+import com.servicehub.dto.ServiceHubDTOs.AdminStats;
+import com.servicehub.entity.Booking;
+import com.servicehub.entity.ServiceProvider;
+import com.servicehub.entity.User;
+import com.servicehub.repository.BookingRepository;
+import com.servicehub.repository.ServiceProviderRepository;
+import com.servicehub.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Row counts behind the admin dashboard, kept in memory per user role, provider
+ * approval status and booking status. Seeded from one grouped query per table at
+ * startup, moved by the write paths once their transaction commits, and reconciled
+ * against the database every few minutes. Reconciliation is skipped while a
+ * counted write is between commit and its in-memory update, so it never double-counts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdminStatsRegistry {
+
+    private final UserRepository userRepository;
+    private final ServiceProviderRepository providerRepository;
+    private final BookingRepository bookingRepository;
+
+    private final Map<User.Role, LongAdder> users = counters(User.Role.class);
+    private final Map<ServiceProvider.ApprovalStatus, LongAdder> providers = counters(ServiceProvider.ApprovalStatus.class);
+    private final Map<Booking.BookingStatus, LongAdder> bookings = counters(Booking.BookingStatus.class);
+
+    private final AtomicLong committing = new AtomicLong();   // counted writes past beforeCommit, not yet applied
+    private final AtomicLong applied = new AtomicLong();      // counted writes applied so far
+
+    public AdminStats snapshot() {
+        return AdminStats.builder()
+                .totalUsers(users.get(User.Role.USER).sum())
+                .totalProviders(users.get(User.Role.PROVIDER).sum())
+                .pendingProviderApprovals(providers.get(ServiceProvider.ApprovalStatus.PENDING).sum())
+                .totalBookings(bookings.values().stream().mapToLong(LongAdder::sum).sum())
+                .activeBookings(bookings.get(Booking.BookingStatus.CONFIRMED).sum()
+                        + bookings.get(Booking.BookingStatus.IN_PROGRESS).sum())
+                .completedBookings(bookings.get(Booking.BookingStatus.COMPLETED).sum())
+                .build();
+    }
+
+    public void userCreated(User.Role role) {
+        onCommit(() -> users.get(role).increment());
+    }
+
+    public void providerCreated(ServiceProvider.ApprovalStatus status) {
+        onCommit(() -> providers.get(status).increment());
+    }
+
+    public void providerMoved(ServiceProvider.ApprovalStatus from, ServiceProvider.ApprovalStatus to) {
+        if (from == to) return;
+        onCommit(() -> {
+            providers.get(from).decrement();
+            providers.get(to).increment();
+        });
+    }
+
+    public void bookingCreated(Booking.BookingStatus status) {
+        onCommit(() -> bookings.get(status).increment());
+    }
+
+    public void bookingsMoved(Collection<Booking.BookingStatus> from, Booking.BookingStatus to) {
+        if (from.isEmpty()) return;
+        List<Booking.BookingStatus> previous = List.copyOf(from);
+        onCommit(() -> previous.forEach(s -> {
+            bookings.get(s).decrement();
+            bookings.get(to).increment();
+        }));
+    }
+
+    public void bookingsRemoved(Collection<Booking.BookingStatus> statuses) {
+        if (statuses.isEmpty()) return;
+        List<Booking.BookingStatus> removed = List.copyOf(statuses);
+        onCommit(() -> removed.forEach(s -> bookings.get(s).decrement()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelay = 300_000, initialDelay = 300_000)
+    public void reconcile() {
+        long seen = applied.get();
+        if (committing.get() > 0) return;
+        List<Object[]> userRows = userRepository.countGroupedByRole();
+        List<Object[]> providerRows = providerRepository.countGroupedByApprovalStatus();
+        List<Object[]> bookingRows = bookingRepository.countGroupedByStatus();
+        if (committing.get() > 0 || applied.get() != seen) return;   // try again next round
+
+        long drift = reset(users, userRows) + reset(providers, providerRows) + reset(bookings, bookingRows);
+        if (drift > 0) log.info("Admin stats reconciled; corrected a drift of {} rows", drift);
+    }
+
+    // Sets each counter to the queried count and returns the total absolute correction
+    private static <E extends Enum<E>> long reset(Map<E, LongAdder> counters, List<Object[]> rows) {
+        Map<E, Long> actual = new HashMap<>();
+        for (Object[] r : rows) {
+            @SuppressWarnings("unchecked") E key = (E) r[0];
+            if (key != null) actual.put(key, (Long) r[1]);
+        }
+        long drift = 0;
+        for (Map.Entry<E, LongAdder> e : counters.entrySet()) {
+            long delta = actual.getOrDefault(e.getKey(), 0L) - e.getValue().sum();
+            e.getValue().add(delta);
+            drift += Math.abs(delta);
+        }
+        return drift;
+    }
+
+    // Applies the change once the surrounding transaction commits (immediately without one)
+    private void onCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            applied.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean counted;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                committing.incrementAndGet();
+                counted = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    change.run();
+                    applied.incrementAndGet();
+                }
+                if (counted) committing.decrementAndGet();
+            }
+        });
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> counters(Class<E> type) {
+        Map<E, LongAdder> map = new EnumMap<>(type);
+        for (E e : type.getEnumConstants()) map.put(e, new LongAdder());
+        return map;
+    }
+}
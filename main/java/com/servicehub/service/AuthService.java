@@ -31,6 +31,8 @@ public class AuthService {
     private final ServiceCategoryRepository categoryRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final ProviderIndexer providerIndexer;
+    private final AdminStatsRegistry stats;
 
     public AuthDTOs.AuthResponse login(AuthDTOs.LoginRequest request) {
         Authentication authentication = authenticationManager.authenticate(
@@ -60,6 +62,7 @@ public class AuthService {
                 .role(User.Role.USER)
                 .build();
         userRepository.save(user);
+        stats.userCreated(user.getRole());
 
         String accessToken = jwtUtils.generateAccessToken(user);
         String refreshToken = jwtUtils.generateRefreshToken(user);
@@ -84,6 +87,7 @@ public class AuthService {
                 .build();
 
         userRepository.save(user);
+        stats.userCreated(user.getRole());
 
         List<ServiceCategory> categories = categoryRepository.findAllById(
                 request.getServiceCategoryIds() != null ? request.getServiceCategoryIds() : List.of()
@@ -93,6 +97,8 @@ public class AuthService {
                 .user(user)
                 .description(request.getDescription())
                 .city(request.getCity())   // ✅ FIXED LINE
+                .latitude(request.getLatitude())
+                .longitude(request.getLongitude())
                 .experienceYears(request.getExperienceYears() != null ? request.getExperienceYears() : 0)
                 .hourlyRate(request.getHourlyRate() != null ? request.getHourlyRate() : 0.0)
                 .credentialInfo(request.getCredentialInfo())
@@ -101,6 +107,8 @@ public class AuthService {
                 .build();
 
         providerRepository.save(provider);
+        stats.providerCreated(provider.getApprovalStatus());
+        providerIndexer.reindex(provider);
 
         String accessToken = jwtUtils.generateAccessToken(user);
         String refreshToken = jwtUtils.generateRefreshToken(user);
@@ -115,4 +123,8 @@ public class AuthService {
         );
     }
 
+    /** Short-lived token that lets a browser EventSource open the caller's booking event stream. */
+    public AuthDTOs.StreamTokenResponse issueStreamToken(UserDetailsImpl user) {
+        return new AuthDTOs.StreamTokenResponse(jwtUtils.generateStreamToken(user), jwtUtils.getStreamTokenExpirationMs());
+    }
 }
@@ -0,0 +1,254 @@
+package com.servicehub.service;
+
+import com.servicehub.config.ArchiveProperties;
+import com.servicehub.dto.ServiceHubDTOs.BookingResponse;
+import com.servicehub.dto.ServiceHubDTOs.CursorPage;
+import com.servicehub.entity.ArchivedBooking;
+import com.servicehub.entity.Booking;
+import com.servicehub.exception.BadRequestException;
+import com.servicehub.repository.ArchivedBookingRepository;
+import com.servicehub.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hot/cold split of bookings. A nightly job moves terminal bookings that have not
+ * changed for {@code app.archive.after} (with their review and payment) into the
+ * {@code *_archive} tables, one short transaction per batch. Live paths only ever
+ * see {@code bookings}; the user and provider history listings use the helpers
+ * below to continue into the archive.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingArchive {
+
+    private static final int MAX_CACHED_COUNTS = 10_000;
+
+    private static final Set<Booking.BookingStatus> TERMINAL = EnumSet.of(
+            Booking.BookingStatus.COMPLETED, Booking.BookingStatus.CANCELLED, Booking.BookingStatus.REJECTED);
+
+    // Archived rows are older than live ones, so history pages are only ever newest first
+    private static final Sort HISTORY_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private static final Comparator<BookingResponse> NEWEST_FIRST = Comparator
+            .comparing(BookingResponse::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(BookingResponse::getId, Comparator.reverseOrder());
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedRepository;
+    private final BookingTransitions transitions;
+    private final ArchiveProperties props;
+    private final AdminStatsRegistry stats;
+    private final TransactionTemplate tx;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Newest createdAt in the archive; keyset pages whose rows are all newer skip the archive query
+    private volatile LocalDateTime newestArchived;
+
+    // Archived bookings per user / provider, least recently used evicted; they only change when the archive job runs
+    private final Map<Long, Long> archivedByUser = countCache();
+    private final Map<Long, Long> archivedByProvider = countCache();
+    private final AtomicLong countGeneration = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadWatermark() {
+        newestArchived = archivedRepository.findNewestCreatedAt();
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archiveScheduled() {
+        if (props.isEnabled()) archive();
+    }
+
+    /** Archives eligible bookings in batches until none are left or the per-run cap is hit. */
+    public int archive() {
+        if (!running.compareAndSet(false, true)) return 0;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(props.getAfter());
+            int total = 0;
+            for (int i = 0; i < props.getMaxBatchesPerRun(); i++) {
+                Integer moved = tx.execute(status -> archiveBatch(cutoff));
+                if (moved == null || moved == 0) break;
+                total += moved;
+            }
+            if (total > 0) log.info("Archived {} bookings last changed before {}", total, cutoff);
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> candidates = bookingRepository.findArchivableIds(
+                TERMINAL, cutoff, PageRequest.of(0, props.getBatchSize()));
+        if (candidates.isEmpty()) return 0;
+
+        // Lock the rows and re-check them, so nothing changes between copy and delete
+        List<BookingTransitions.Row> rows = transitions.lock(candidates).stream()
+                .filter(r -> TERMINAL.contains(r.status())).toList();
+        if (rows.isEmpty()) return 0;
+        List<Long> ids = rows.stream().map(BookingTransitions.Row::id).toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        archivedRepository.copyBookings(ids, now);
+        archivedRepository.copyReviews(ids, now);
+        archivedRepository.copyPayments(ids, now);
+        archivedRepository.deleteReviews(ids);
+        archivedRepository.deletePayments(ids);
+        archivedRepository.deleteBookings(ids);
+        stats.bookingsRemoved(rows.stream().map(BookingTransitions.Row::status).toList());
+
+        LocalDateTime newestInBatch = rows.stream().map(BookingTransitions.Row::createdAt)
+                .filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+        AfterCommit.run(() -> {
+            raiseWatermark(newestInBatch);
+            countGeneration.incrementAndGet();
+            synchronized (archivedByUser) { archivedByUser.clear(); }
+            synchronized (archivedByProvider) { archivedByProvider.clear(); }
+        });
+        return ids.size();
+    }
+
+    private synchronized void raiseWatermark(LocalDateTime createdAt) {
+        if (createdAt != null && (newestArchived == null || createdAt.isAfter(newestArchived))) {
+            newestArchived = createdAt;
+        }
+    }
+
+    public long archivedCountForUser(Long userId) {
+        return cachedCount(archivedByUser, userId, archivedRepository::countByUserId);
+    }
+
+    public long archivedCountForProvider(Long providerId) {
+        return cachedCount(archivedByProvider, providerId, archivedRepository::countByProviderId);
+    }
+
+    // The count query runs outside the lock; a count that raced an archive batch is not cached
+    private long cachedCount(Map<Long, Long> cache, Long id, ToLongFunction<Long> count) {
+        long generation = countGeneration.get();
+        synchronized (cache) {
+            Long cached = cache.get(id);
+            if (cached != null) return cached;
+        }
+        long value = count.applyAsLong(id);
+        synchronized (cache) {
+            if (countGeneration.get() == generation) cache.put(id, value);
+        }
+        return value;
+    }
+
+    private static Map<Long, Long> countCache() {
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > MAX_CACHED_COUNTS;
+            }
+        };
+    }
+
+    /**
+     * The page request a history listing runs with: newest first by default, and any other
+     * sort is refused because archived rows are appended after the live ones.
+     */
+    public Pageable historyPageable(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.isUnsorted()) {
+            return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), HISTORY_SORT);
+        }
+        boolean newestFirst = sort.getOrderFor("createdAt") != null && sort.stream().allMatch(o -> o.isDescending()
+                && (o.getProperty().equals("createdAt") || o.getProperty().equals("id")));
+        if (!newestFirst) {
+            throw new BadRequestException("Booking history can only be sorted by createdAt,desc");
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), HISTORY_SORT);
+    }
+
+    /**
+     * Offset page over live bookings followed by archived ones: pages are filled from
+     * {@code hot} first and continue into the archive once the live rows run out.
+     * {@code pageable} must come from {@link #historyPageable}; {@code archivedCount}
+     * should be one of the cached counts above.
+     */
+    public Page<BookingResponse> page(Page<Booking> hot, Pageable pageable,
+                                      Function<Pageable, Page<ArchivedBooking>> archived,
+                                      LongSupplier archivedCount, boolean includeCredentials) {
+        List<BookingResponse> content = new ArrayList<>(
+                hot.getContent().stream().map(b -> BookingResponse.from(b, includeCredentials)).toList());
+        int size = pageable.getPageSize();
+        if (newestArchived == null) {
+            return new PageImpl<>(content, pageable, hot.getTotalElements());
+        }
+        if (content.size() == size) {
+            return new PageImpl<>(content, pageable, hot.getTotalElements() + archivedCount.getAsLong());
+        }
+
+        // Archive rows start right after the last live row; cover that offset with at most two archive pages
+        long start = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+        int page = (int) (start / size);
+        int skip = (int) (start % size);
+        Page<ArchivedBooking> first = archived.apply(PageRequest.of(page, size, pageable.getSort()));
+        List<ArchivedBooking> rows = new ArrayList<>(first.getContent());
+        if (skip > 0 && first.hasNext()) {
+            rows.addAll(archived.apply(PageRequest.of(page + 1, size, pageable.getSort())).getContent());
+        }
+        rows.stream().skip(skip).limit(size - content.size())
+                .forEach(a -> content.add(BookingResponse.from(a, includeCredentials)));
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + archivedCount.getAsLong());
+    }
+
+    /**
+     * Keyset slice merged from live and archived bookings, newest first. The archive is
+     * only queried when the live slice is short or reaches back past the newest archived row.
+     */
+    public CursorPage<BookingResponse> scroll(Slice<Booking> hot, int size,
+                                              Function<Pageable, Slice<ArchivedBooking>> archived,
+                                              boolean includeCredentials) {
+        List<BookingResponse> merged = new ArrayList<>(
+                hot.getContent().stream().map(b -> BookingResponse.from(b, includeCredentials)).toList());
+        boolean more = hot.hasNext();
+        LocalDateTime watermark = newestArchived;
+        boolean archiveMayContribute = watermark != null && (merged.size() < size
+                || !merged.get(merged.size() - 1).getCreatedAt().isAfter(watermark));
+        if (archiveMayContribute) {
+            Slice<ArchivedBooking> cold = archived.apply(PageRequest.of(0, size));
+            cold.getContent().forEach(a -> merged.add(BookingResponse.from(a, includeCredentials)));
+            merged.sort(NEWEST_FIRST);
+            more = more || cold.hasNext() || merged.size() > size;
+        }
+        List<BookingResponse> content = merged.size() > size ? List.copyOf(merged.subList(0, size)) : merged;
+        String next = null;
+        if (more && !content.isEmpty()) {
+            BookingResponse last = content.get(content.size() - 1);
+            next = KeysetCursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(content, next, more);
+    }
+}
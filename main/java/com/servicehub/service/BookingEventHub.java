@@ -0,0 +1,159 @@
+package com.servicehub.service;
+
+import com.servicehub.dto.ServiceHubDTOs.BookingEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes booking changes to dashboards over Server-Sent Events, one stream per
+ * connected tab, keyed by the principal's user id.
+ *
+ * <p>Streams are async servlet responses, so an idle connection holds no thread.
+ * Each stream has a small bounded buffer drained by a shared writer pool; a client
+ * that falls a full buffer behind is disconnected instead of slowing anyone else
+ * down; it reconnects and reloads its booking list.
+ */
+@Component
+@Slf4j
+public class BookingEventHub {
+
+    static final int BUFFER_SIZE = 32;
+    static final int MAX_STREAMS_PER_PRINCIPAL = 5;
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int WRITER_THREADS = 4;
+
+    private final Map<Long, Set<Stream>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger writerSeq = new AtomicInteger();
+    private final ExecutorService writers = Executors.newFixedThreadPool(WRITER_THREADS, r -> {
+        Thread t = new Thread(r, "booking-events-" + writerSeq.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final class Stream {
+        final Long principalId;
+        final SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        final Queue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Stream(Long principalId) {
+            this.principalId = principalId;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) return;
+            if (!buffer.offer(event)) {
+                log.debug("Dropping slow booking event stream of principal {}", principalId);
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        // Single writer per stream: only the thread that won the draining flag sends
+        void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An offer may have landed between the last poll and releasing the flag
+            if (!closed && !buffer.isEmpty() && draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            remove(this);
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+
+    /** Opens a new stream for the principal, closing its other streams beyond the per-principal cap. */
+    public SseEmitter subscribe(Long principalId) {
+        Stream stream = new Stream(principalId);
+        stream.emitter.onCompletion(() -> remove(stream));
+        stream.emitter.onTimeout(stream::close);
+        stream.emitter.onError(e -> stream.close());
+
+        // Add inside compute so a concurrent remove() cannot drop the set we are joining
+        Set<Stream> own = streams.compute(principalId, (id, existing) -> {
+            Set<Stream> set = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            set.add(stream);
+            return set;
+        });
+        own.stream().filter(s -> s != stream).limit(Math.max(0, own.size() - MAX_STREAMS_PER_PRINCIPAL))
+                .toList().forEach(Stream::close);
+
+        stream.offer(SseEmitter.event().comment("connected"));
+        return stream.emitter;
+    }
+
+    /**
+     * Delivers an event to every stream of the given principals after the current
+     * transaction commits, so listeners never see a change that was rolled back.
+     */
+    public void publish(BookingEvent event, Long... principalIds) {
+        Set<Long> recipients = new LinkedHashSet<>();
+        for (Long id : principalIds) {
+            if (id != null) recipients.add(id);
+        }
+        AfterCommit.run(() -> {
+            for (Long id : recipients) {
+                Set<Stream> own = streams.get(id);
+                if (own == null) continue;
+                for (Stream s : own) {
+                    s.offer(SseEmitter.event()
+                            .name(event.getType())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+        });
+    }
+
+    /** Keeps proxies from closing idle streams and detects clients that went away. */
+    @Scheduled(fixedDelay = 25_000)
+    public void heartbeat() {
+        streams.values().forEach(own -> own.forEach(s -> s.offer(SseEmitter.event().comment("ping"))));
+    }
+
+    private void remove(Stream stream) {
+        streams.computeIfPresent(stream.principalId, (id, own) -> {
+            own.remove(stream);
+            return own.isEmpty() ? null : own;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streams.values().forEach(own -> own.forEach(Stream::close));
+        writers.shutdownNow();
+    }
+}
@@ -0,0 +1,136 @@
+package com.servicehub.service;
+
+import com.servicehub.config.BookingLifecycleProperties;
+import com.servicehub.dto.ServiceHubDTOs.BookingEvent;
+import com.servicehub.entity.Booking;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deadlines attached to live bookings, held in a {@link TimingWheel} instead of
+ * being polled from the bookings table:
+ * <ul>
+ *   <li>PENDING: cancelled when the provider has not answered in time;</li>
+ *   <li>CONFIRMED: participants are reminded shortly before the start;</li>
+ *   <li>IN_PROGRESS: completed automatically some time after the scheduled end.</li>
+ * </ul>
+ * Timers are re-armed after every committed status change and rebuilt from the
+ * database at startup. Due timers are applied in one transaction per kind and tick;
+ * each row is re-checked under lock, so a timer that lost a race does nothing.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingLifecycleTimers {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int BATCH_SIZE = 500;
+
+    enum Kind { EXPIRE, REMIND, AUTO_CLOSE }
+
+    record TimerKey(Long bookingId, Kind kind) {}
+
+    private final BookingTransitions transitions;
+    private final BookingLifecycleProperties props;
+    private final TransactionTemplate tx;
+
+    private final TimingWheel<TimerKey> wheel = new TimingWheel<>(TICK_MILLIS, System.currentTimeMillis());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<BookingTransitions.Row> live = transitions.findByStatusIn(EnumSet.of(
+                Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED, Booking.BookingStatus.IN_PROGRESS));
+        live.forEach(r -> track(r.id(), r.status(), r.createdAt(), r.scheduledAt(), r.durationMinutes()));
+        log.info("Booking lifecycle timers armed for {} live bookings", live.size());
+    }
+
+    public void track(Booking b) {
+        track(b.getId(), b.getStatus(), b.getCreatedAt(), b.getScheduledAt(), b.getDurationMinutes());
+    }
+
+    /** Replaces the booking's timers with those of its new status; terminal statuses just clear them. */
+    public void track(Long bookingId, Booking.BookingStatus status, LocalDateTime createdAt,
+                      LocalDateTime scheduledAt, int durationMinutes) {
+        forget(bookingId);
+        switch (status) {
+            case PENDING -> {
+                LocalDateTime expiry = (createdAt != null ? createdAt : LocalDateTime.now()).plus(props.getPendingTtl());
+                schedule(bookingId, Kind.EXPIRE, expiry.isBefore(scheduledAt) ? expiry : scheduledAt);
+            }
+            case CONFIRMED -> {
+                LocalDateTime remindAt = scheduledAt.minus(props.getReminderLead());
+                if (remindAt.isAfter(LocalDateTime.now())) {
+                    schedule(bookingId, Kind.REMIND, remindAt);
+                }
+            }
+            case IN_PROGRESS -> schedule(bookingId, Kind.AUTO_CLOSE,
+                    scheduledAt.plusMinutes(durationMinutes).plus(props.getAutoCloseGrace()));
+            default -> { }
+        }
+    }
+
+    public void forget(Long bookingId) {
+        for (Kind kind : Kind.values()) {
+            wheel.cancel(new TimerKey(bookingId, kind));
+        }
+    }
+
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void tick() {
+        List<TimerKey> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) return;
+
+        Map<Kind, List<Long>> byKind = new EnumMap<>(Kind.class);
+        due.forEach(k -> byKind.computeIfAbsent(k.kind(), x -> new ArrayList<>()).add(k.bookingId()));
+        byKind.forEach((kind, ids) -> {
+            for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+                List<Long> batch = ids.subList(i, Math.min(i + BATCH_SIZE, ids.size()));
+                try {
+                    fire(kind, batch);
+                } catch (RuntimeException e) {
+                    log.warn("Booking {} timers for {} failed: {}", kind, batch, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void fire(Kind kind, List<Long> ids) {
+        switch (kind) {
+            case EXPIRE -> move(ids, Booking.BookingStatus.PENDING, Booking.BookingStatus.CANCELLED);
+            case AUTO_CLOSE -> move(ids, Booking.BookingStatus.IN_PROGRESS, Booking.BookingStatus.COMPLETED);
+            case REMIND -> {
+                List<BookingTransitions.Row> confirmed = transitions.find(ids).stream()
+                        .filter(r -> r.status() == Booking.BookingStatus.CONFIRMED).toList();
+                transitions.publish(confirmed, BookingEvent.REMINDER, Booking.BookingStatus.CONFIRMED, null);
+            }
+        }
+    }
+
+    private void move(List<Long> ids, Booking.BookingStatus from, Booking.BookingStatus to) {
+        tx.executeWithoutResult(status -> {
+            List<BookingTransitions.Row> rows = transitions.lock(ids).stream()
+                    .filter(r -> r.status() == from).toList();
+            transitions.apply(rows, to, null);
+            if (!rows.isEmpty()) {
+                log.debug("Lifecycle timers moved {} bookings from {} to {}", rows.size(), from, to);
+            }
+        });
+    }
+
+    private void schedule(Long bookingId, Kind kind, LocalDateTime at) {
+        wheel.schedule(new TimerKey(bookingId, kind), at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+}
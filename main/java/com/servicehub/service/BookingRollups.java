@@ -0,0 +1,264 @@
+package com.servicehub.service;
+
+import com.servicehub.config.RollupProperties;
+import com.servicehub.dto.ServiceHubDTOs.AnalyticsPoint;
+import com.servicehub.entity.Booking;
+import com.servicehub.entity.BookingRollup;
+import com.servicehub.exception.BadRequestException;
+import com.servicehub.repository.BookingRepository;
+import com.servicehub.repository.BookingRollupRepository;
+import com.servicehub.repository.ServiceProviderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Hourly and daily booking/revenue rollups in {@code booking_rollups}, keyed by
+ * (bucket, category, provider city, event); the city is always service_providers.city,
+ * for live events and rebuilt days alike. Write paths record events after
+ * commit into an in-memory buffer that is upserted every few seconds, so booking
+ * transactions never contend on the shared rollup rows. At startup, days in the
+ * backfill window without daily rows are rebuilt from the source tables. Chart
+ * queries read one row per bucket and cell, independent of the number of bookings.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingRollups {
+
+    private static final long FLUSH_MILLIS = 10_000;
+    private static final int MAX_DAYS = 366;
+    private static final int MAX_HOURLY_DAYS = 31;
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String UPSERT_SQL = "INSERT INTO booking_rollups " +
+            "(granularity, bucket_start, category_id, city, status, event_count, amount) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE event_count = event_count + VALUES(event_count), amount = amount + VALUES(amount)";
+
+    private final BookingRollupRepository rollupRepository;
+    private final BookingRepository bookingRepository;
+    private final ServiceProviderRepository providerRepository;
+    private final RollupProperties props;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    record Cell(LocalDateTime hour, Long categoryId, String city, BookingRollup.Event event) {}
+
+    record Delta(long count, double amount) {
+        Delta plus(Delta other) {
+            return new Delta(count + other.count, amount + other.amount);
+        }
+    }
+
+    // Buffered by provider; its city is read from service_providers when flushing, as the rebuild does
+    private record PendingCell(LocalDateTime hour, Long categoryId, Long providerId, BookingRollup.Event event) {}
+
+    // Payments know only their booking; category and provider are looked up when flushing
+    private record PaymentCell(Long bookingId, LocalDateTime hour, BookingRollup.Event event) {}
+
+    private record PointKey(LocalDateTime bucket, Long categoryId, String city) {}
+
+    private final Map<PendingCell, Delta> pending = new ConcurrentHashMap<>();
+    private final Map<PaymentCell, Delta> pendingPayments = new ConcurrentHashMap<>();
+
+    /** Counts a booking entering {@code status} (PENDING counts as created) once the transaction commits. */
+    public void bookingEvent(Long categoryId, Long providerId, Booking.BookingStatus status) {
+        PendingCell cell = new PendingCell(currentHour(), categoryId, providerId, BookingRollup.Event.of(status));
+        AfterCommit.run(() -> pending.merge(cell, new Delta(1, 0), Delta::plus));
+    }
+
+    public void paymentEvent(Long bookingId, BookingRollup.Event event, double amount) {
+        PaymentCell cell = new PaymentCell(bookingId, currentHour(), event);
+        AfterCommit.run(() -> pendingPayments.merge(cell, new Delta(1, amount), Delta::plus));
+    }
+
+    @Scheduled(fixedDelay = FLUSH_MILLIS)
+    public synchronized void flush() {
+        Map<PendingCell, Delta> batch = drain(pending);
+        Map<PaymentCell, Delta> payments = drain(pendingPayments);
+        boolean resolved = false;
+        try {
+            resolvePayments(payments, batch);
+            resolved = true;
+            if (batch.isEmpty()) return;
+            Map<Cell, Delta> cells = resolveCities(batch);
+            tx.executeWithoutResult(status -> write(cells));
+        } catch (RuntimeException e) {
+            // Keep the deltas for the next attempt
+            batch.forEach((c, d) -> pending.merge(c, d, Delta::plus));
+            if (!resolved) payments.forEach((p, d) -> pendingPayments.merge(p, d, Delta::plus));
+            log.warn("Booking rollup flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void resolvePayments(Map<PaymentCell, Delta> payments, Map<PendingCell, Delta> into) {
+        if (payments.isEmpty()) return;
+        Set<Long> ids = payments.keySet().stream().map(PaymentCell::bookingId).collect(Collectors.toSet());
+        Map<Long, Object[]> bookings = new HashMap<>();
+        bookingRepository.findRollupKeysByIdIn(ids).forEach(r -> bookings.put((Long) r[0], r));
+        payments.forEach((p, d) -> {
+            Object[] b = bookings.get(p.bookingId());
+            if (b == null) return;   // booking no longer exists
+            into.merge(new PendingCell(p.hour(), (Long) b[1], (Long) b[2], p.event()), d, Delta::plus);
+        });
+    }
+
+    // Same city key as aggregateActivity: service_providers.city, '' when unset
+    private Map<Cell, Delta> resolveCities(Map<PendingCell, Delta> batch) {
+        Set<Long> providerIds = batch.keySet().stream().map(PendingCell::providerId).collect(Collectors.toSet());
+        Map<Long, String> cities = new HashMap<>();
+        providerRepository.findCitiesByIdIn(providerIds).forEach(r -> cities.put((Long) r[0], (String) r[1]));
+        Map<Cell, Delta> cells = new HashMap<>();
+        batch.forEach((p, d) -> cells.merge(new Cell(p.hour(), p.categoryId(),
+                cities.getOrDefault(p.providerId(), ""), p.event()), d, Delta::plus));
+        return cells;
+    }
+
+    // Upserts the hourly cells and the daily cells they add up to; must run inside a transaction
+    private void write(Map<Cell, Delta> cells) {
+        Map<Cell, Delta> days = new HashMap<>();
+        cells.forEach((c, d) -> days.merge(
+                new Cell(c.hour().truncatedTo(ChronoUnit.DAYS), c.categoryId(), c.city(), c.event()), d, Delta::plus));
+        List<Object[]> args = new ArrayList<>(cells.size() + days.size());
+        cells.forEach((c, d) -> args.add(upsertArgs(BookingRollup.Granularity.HOUR, c, d)));
+        days.forEach((c, d) -> args.add(upsertArgs(BookingRollup.Granularity.DAY, c, d)));
+        jdbc.batchUpdate(UPSERT_SQL, args);
+    }
+
+    private static Object[] upsertArgs(BookingRollup.Granularity granularity, Cell c, Delta d) {
+        return new Object[]{granularity.name(), c.hour(), c.categoryId(), c.city(), c.event().name(), d.count(), d.amount()};
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        LocalDate today = LocalDate.now();
+        LocalDate first = today.minusDays(props.getBackfillDays());
+        Set<LocalDate> covered = rollupRepository.findBucketsSince(BookingRollup.Granularity.DAY, first.atStartOfDay())
+                .stream().map(LocalDateTime::toLocalDate).collect(Collectors.toSet());
+        int rebuilt = 0;
+        for (LocalDate day = first; day.isBefore(today); day = day.plusDays(1)) {
+            if (!covered.contains(day)) {
+                rebuildDay(day);
+                rebuilt++;
+            }
+        }
+        if (rebuilt > 0) log.info("Booking rollups backfilled for {} days since {}", rebuilt, first);
+    }
+
+    /**
+     * Recomputes whole days in [from, to) from bookings, payments and the archive. Today is
+     * left to the live counters. Rebuilt days only see each booking's creation and current
+     * status, not the transitions in between.
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        LocalDate end = to.isAfter(LocalDate.now()) ? LocalDate.now() : to;
+        if (!from.isBefore(end)) {
+            throw new BadRequestException("Range must cover at least one day before today");
+        }
+        if (ChronoUnit.DAYS.between(from, end) > MAX_DAYS) {
+            throw new BadRequestException("At most " + MAX_DAYS + " days can be rebuilt at once");
+        }
+        flush();
+        int days = 0;
+        for (LocalDate day = from; day.isBefore(end); day = day.plusDays(1)) {
+            rebuildDay(day);
+            days++;
+        }
+        return days;
+    }
+
+    private void rebuildDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        tx.executeWithoutResult(status -> {
+            rollupRepository.deleteRange(from, to);
+            Map<Cell, Delta> cells = new HashMap<>();
+            for (Object[] r : rollupRepository.aggregateActivity(from, to)) {
+                Cell cell = new Cell(LocalDateTime.parse((String) r[0], HOUR_FORMAT), ((Number) r[1]).longValue(),
+                        (String) r[2], BookingRollup.Event.valueOf((String) r[3]));
+                cells.merge(cell, new Delta(((Number) r[4]).longValue(), ((Number) r[5]).doubleValue()), Delta::plus);
+            }
+            if (!cells.isEmpty()) write(cells);
+        });
+    }
+
+    @Scheduled(cron = "0 45 3 * * *")
+    public void pruneHourly() {
+        LocalDateTime before = LocalDateTime.now().minus(props.getHourlyRetention()).truncatedTo(ChronoUnit.HOURS);
+        Integer removed = tx.execute(status -> rollupRepository.deleteBefore(BookingRollup.Granularity.HOUR, before));
+        if (removed != null && removed > 0) log.debug("Pruned {} hourly booking rollups", removed);
+    }
+
+    /**
+     * Activity per bucket in [from, to), optionally filtered by category and city and
+     * split by {@code groupBy} ({@code none}, {@code category} or {@code city}).
+     */
+    public List<AnalyticsPoint> query(String granularity, LocalDate from, LocalDate to,
+                                      Long categoryId, String city, String groupBy) {
+        BookingRollup.Granularity g = EnumParams.parse(BookingRollup.Granularity.class, granularity, "granularity");
+        boolean byCategory = "category".equalsIgnoreCase(groupBy);
+        boolean byCity = "city".equalsIgnoreCase(groupBy);
+        if (!byCategory && !byCity && groupBy != null && !"none".equalsIgnoreCase(groupBy)) {
+            throw new BadRequestException("groupBy must be one of none, category, city");
+        }
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+        int maxDays = g == BookingRollup.Granularity.HOUR ? MAX_HOURLY_DAYS : MAX_DAYS;
+        if (ChronoUnit.DAYS.between(from, to) > maxDays) {
+            throw new BadRequestException("At most " + maxDays + " days per " + g.name().toLowerCase() + " query");
+        }
+
+        Map<PointKey, AnalyticsPoint> points = new LinkedHashMap<>();
+        for (Object[] r : rollupRepository.findRange(g, from.atStartOfDay(), to.atStartOfDay(), categoryId, city)) {
+            LocalDateTime bucket = (LocalDateTime) r[0];
+            Long cat = byCategory ? (Long) r[1] : null;
+            String c = byCity ? (String) r[2] : null;
+            AnalyticsPoint point = points.computeIfAbsent(new PointKey(bucket, cat, c),
+                    k -> new AnalyticsPoint(bucket, cat, c, new LinkedHashMap<>(), 0.0));
+            BookingRollup.Event event = (BookingRollup.Event) r[3];
+            point.getEvents().merge(event.name(), (Long) r[4], Long::sum);
+            double amount = (Double) r[5];
+            if (event == BookingRollup.Event.PAID) point.setRevenue(point.getRevenue() + amount);
+            if (event == BookingRollup.Event.REFUNDED) point.setRevenue(point.getRevenue() - amount);
+        }
+        return new ArrayList<>(points.values());
+    }
+
+    private static LocalDateTime currentHour() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static <K, V> Map<K, V> drain(Map<K, V> source) {
+        Map<K, V> drained = new HashMap<>();
+        for (K key : List.copyOf(source.keySet())) {
+            V value = source.remove(key);
+            if (value != null) drained.put(key, value);
+        }
+        return drained;
+    }
+}
@@ -3,102 +3,262 @@ package com.servicehub.service;
 import com.servicehub.dto.ServiceHubDTOs.*;
 import com.servicehub.entity.*;
 import com.servicehub.exception.BadRequestException;
+import com.servicehub.exception.ConflictException;
 import com.servicehub.exception.ResourceNotFoundException;
 import com.servicehub.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
+    public static final int MAX_BULK_BOOKINGS = 200;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ServiceProviderRepository providerRepository;
     private final ServiceCategoryRepository categoryRepository;
-    private final AddressRepository addressRepository;
     private final ReviewRepository reviewRepository;
+    private final ProviderIndexer providerIndexer;
+    private final ProviderRanking ranking;
+    private final BookingSlotIndex slotIndex;
+    private final BookingEventHub events;
+    private final BookingTransitions transitions;
+    private final BookingLifecycleTimers timers;
+    private final BookingArchive archive;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ProviderRatings providerRatings;
+    private final AdminStatsRegistry stats;
+    private final BookingRollups rollups;
 
     @Transactional
     public BookingResponse createBooking(Long userId, CreateBookingRequest req) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        ServiceProvider provider = providerRepository.findById(req.getProviderId())
-                .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
+        // One read validates provider, category and address; the caller is the authenticated user
+        List<Object[]> rows = bookingRepository.loadBookingContext(
+                req.getProviderId(), req.getCategoryId(), req.getAddressId());
+        if (rows.isEmpty()) {
+            throw missingBookingReference(req);
+        }
+        Object[] row = rows.get(0);
+        ServiceProvider provider = (ServiceProvider) row[0];
+        Address address = (Address) row[1];
+        ServiceCategory category = (ServiceCategory) row[2];
+        boolean offersCategory = (Boolean) row[3];
 
         if (provider.getApprovalStatus() != ServiceProvider.ApprovalStatus.APPROVED) {
             throw new BadRequestException("Provider is not approved yet");
         }
-
-        ServiceCategory category = categoryRepository.findById(req.getCategoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
-
-        Address address = addressRepository.findById(req.getAddressId())
-                .orElseThrow(() -> new ResourceNotFoundException("Address not found"));
-
+        if (!Boolean.TRUE.equals(category.getIsActive()) || !offersCategory) {
+            throw new BadRequestException("Provider does not offer this service");
+        }
         if (!address.getUser().getId().equals(userId)) {
             throw new BadRequestException("Address does not belong to this user");
         }
+        User user = userRepository.getReferenceById(userId);
 
+        int duration = req.getDurationMinutes() != null
+                ? req.getDurationMinutes() : Booking.DEFAULT_DURATION_MINUTES;
         Booking booking = Booking.builder()
                 .user(user)
                 .provider(provider)
                 .serviceCategory(category)
                 .serviceAddress(address)
                 .scheduledAt(req.getScheduledAt())
+                .durationMinutes(duration)
+                .activeSlot(req.getScheduledAt())
                 .notes(req.getNotes())
                 .totalAmount(provider.getHourlyRate())
                 .status(Booking.BookingStatus.PENDING)
                 .build();
 
-        bookingRepository.save(booking);
+        // Rejects overlaps in memory (409); released automatically if this transaction rolls back
+        Object reservation = slotIndex.reserve(provider.getId(), booking.getScheduledAt(), booking.getEndsAt());
+        try {
+            bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Provider is already booked at this time");
+        }
+        slotIndex.bind(reservation, booking.getId());
+        stats.bookingCreated(booking.getStatus());
+        rollups.bookingEvent(category.getId(), provider.getId(), booking.getStatus());
+        AfterCommit.run(() -> timers.track(booking));
+        events.publish(BookingEvent.of(BookingEvent.CREATED, booking.getId(), provider.getId(), booking.getStatus()),
+                userId, provider.getUser().getId());
         return BookingResponse.from(booking, false);
     }
 
+    // Slow path, only reached when the combined lookup finds nothing
+    private ResourceNotFoundException missingBookingReference(CreateBookingRequest req) {
+        if (!providerRepository.existsById(req.getProviderId())) {
+            return new ResourceNotFoundException("Provider not found");
+        }
+        if (!categoryRepository.existsById(req.getCategoryId())) {
+            return new ResourceNotFoundException("Category not found");
+        }
+        return new ResourceNotFoundException("Address not found");
+    }
+
+    // History listings continue into the archive; see BookingArchive
     public Page<BookingResponse> getUserBookings(Long userId, Pageable pageable) {
-        return bookingRepository.findByUserId(userId, pageable)
-                .map(b -> BookingResponse.from(b, true));
+        Pageable history = archive.historyPageable(pageable);
+        return archive.page(bookingRepository.findByUserId(userId, history), history,
+                p -> archivedBookingRepository.findByUserId(userId, p),
+                () -> archive.archivedCountForUser(userId), true);
     }
 
     public Page<BookingResponse> getProviderBookings(Long userId, Pageable pageable) {
         ServiceProvider provider = providerRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
-        return bookingRepository.findByProviderId(provider.getId(), pageable)
-                .map(b -> BookingResponse.from(b, false));
+        Long providerId = provider.getId();
+        Pageable history = archive.historyPageable(pageable);
+        return archive.page(bookingRepository.findByProviderId(providerId, history), history,
+                p -> archivedBookingRepository.findByProviderId(providerId, p),
+                () -> archive.archivedCountForProvider(providerId), false);
+    }
+
+    public CursorPage<BookingResponse> scrollUserBookings(Long userId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime afterCreatedAt = after != null ? after.timestamp() : null;
+        Long afterId = after != null ? after.id() : null;
+        int limit = KeysetCursor.clampSize(size);
+        return archive.scroll(
+                bookingRepository.scrollByUserId(userId, afterCreatedAt, afterId, PageRequest.of(0, limit)),
+                limit,
+                p -> archivedBookingRepository.scrollByUserId(userId, afterCreatedAt, afterId, p),
+                true);
+    }
+
+    public CursorPage<BookingResponse> scrollProviderBookings(Long userId, String cursor, int size) {
+        ServiceProvider provider = providerRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
+        Long providerId = provider.getId();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime afterCreatedAt = after != null ? after.timestamp() : null;
+        Long afterId = after != null ? after.id() : null;
+        int limit = KeysetCursor.clampSize(size);
+        return archive.scroll(
+                bookingRepository.scrollByProviderId(providerId, afterCreatedAt, afterId, PageRequest.of(0, limit)),
+                limit,
+                p -> archivedBookingRepository.scrollByProviderId(providerId, afterCreatedAt, afterId, p),
+                false);
     }
 
     @Transactional
     public BookingResponse updateBookingStatus(Long bookingId, String status, Long actorId, boolean isProvider) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking.BookingStatus newStatus = EnumParams.parse(Booking.BookingStatus.class, status, "booking status");
+        // User can only cancel; provider can confirm, reject, start, complete or cancel
+        if (!isProvider && newStatus != Booking.BookingStatus.CANCELLED) {
+            throw new BadRequestException("Users can only cancel bookings");
+        }
+
+        boolean release = !newStatus.holdsSlot();
+        // Read the status without a lock, then one compare-and-set on exactly that status (the dashboard
+        // counts need the status replaced). A miss with the status unchanged means the actor does not own
+        // the booking; a miss because it moved on is retried once against the new status. Only that
+        // contended path takes a (shared) row lock, to see the latest committed status.
+        Booking.BookingStatus current = bookingRepository.findStatusById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+        Booking.BookingStatus previous = null;
+        for (int attempt = 0; attempt < 2 && current.canTransitionTo(newStatus); attempt++) {
+            int updated = isProvider
+                    ? bookingRepository.transitionAsProvider(bookingId, actorId, Set.of(current), newStatus,
+                            newStatus == Booking.BookingStatus.CONFIRMED, release, LocalDateTime.now())
+                    : bookingRepository.transitionAsUser(bookingId, actorId, Set.of(current), newStatus,
+                            release, LocalDateTime.now());
+            if (updated > 0) {
+                previous = current;
+                break;
+            }
+            Booking.BookingStatus reread = bookingRepository.findLatestStatusById(bookingId).orElse(current);
+            if (reread == current) break;
+            current = reread;
+        }
 
-        Booking.BookingStatus newStatus = Booking.BookingStatus.valueOf(status.toUpperCase());
+        // One read after the update either way: it builds the response and events on success,
+        // and explains the miss (unknown, not owned, or an illegal move) on failure
+        Booking booking = bookingRepository.findDetailedById(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+        if (previous == null) {
+            throw transitionRejected(booking, current, newStatus, actorId, isProvider);
+        }
 
-        if (isProvider) {
-            // Provider can confirm, reject, start, complete
-            if (!booking.getProvider().getUser().getId().equals(actorId)) {
-                throw new BadRequestException("Not authorized");
-            }
-            if (newStatus == Booking.BookingStatus.CONFIRMED) {
-                booking.setCredentialsRevealed(true);
-            }
-        } else {
-            // User can only cancel
-            if (!booking.getUser().getId().equals(actorId)) {
-                throw new BadRequestException("Not authorized");
-            }
-            if (newStatus != Booking.BookingStatus.CANCELLED) {
-                throw new BadRequestException("Users can only cancel bookings");
+        stats.bookingsMoved(List.of(previous), newStatus);
+        rollups.bookingEvent(booking.getServiceCategory().getId(), booking.getProvider().getId(), newStatus);
+        if (release) {
+            AfterCommit.run(() -> slotIndex.release(bookingId));
+        }
+        AfterCommit.run(() -> timers.track(booking));
+        if (newStatus == Booking.BookingStatus.COMPLETED) {
+            Long providerId = booking.getProvider().getId();
+            AfterCommit.run(() -> ranking.recordCompletion(providerId));
+        }
+        events.publish(BookingEvent.of(BookingEvent.STATUS_CHANGED, bookingId, booking.getProvider().getId(), newStatus),
+                booking.getUser().getId(), booking.getProvider().getUser().getId());
+        return BookingResponse.from(booking, true);
+    }
+
+    /**
+     * Moves many bookings to one status in a single transaction. The rows are locked and checked
+     * against the transition table (and, for a provider, ownership), then the eligible ones are
+     * updated with one statement. Ineligible bookings are reported rather than failing the batch.
+     *
+     * @param providerUserId the acting provider's user id, or null when an admin acts
+     */
+    @Transactional
+    public BulkBookingStatusResponse updateBookingStatuses(BulkBookingStatusRequest req, Long providerUserId) {
+        Booking.BookingStatus newStatus = EnumParams.parse(Booking.BookingStatus.class, req.getStatus(), "booking status");
+        Set<Long> ids = new LinkedHashSet<>(req.getBookingIds());
+        if (ids.size() > MAX_BULK_BOOKINGS) {
+            throw new BadRequestException("At most " + MAX_BULK_BOOKINGS + " bookings per request");
+        }
+        Long ownProviderId = providerUserId == null ? null : providerRepository.findByUserId(providerUserId)
+                .orElseThrow(() -> new ResourceNotFoundException("Provider profile not found")).getId();
+
+        Map<Long, BulkBookingOutcome> outcomes = new LinkedHashMap<>();
+        ids.forEach(id -> outcomes.put(id, BulkBookingOutcome.rejected(id, null, "Booking not found")));
+        List<BookingTransitions.Row> eligible = new ArrayList<>();
+        for (BookingTransitions.Row row : transitions.lock(ids)) {
+            if (ownProviderId != null && !ownProviderId.equals(row.providerId())) {
+                outcomes.put(row.id(), BulkBookingOutcome.rejected(row.id(), null, "Not authorized"));
+            } else if (!row.status().canTransitionTo(newStatus)) {
+                outcomes.put(row.id(), BulkBookingOutcome.rejected(row.id(), row.status(),
+                        "Cannot change booking from " + row.status() + " to " + newStatus));
+            } else {
+                eligible.add(row);
+                outcomes.put(row.id(), BulkBookingOutcome.applied(row.id(), newStatus));
             }
         }
 
-        booking.setStatus(newStatus);
-        bookingRepository.save(booking);
-        return BookingResponse.from(booking, true);
+        transitions.apply(eligible, newStatus, providerUserId);
+        AfterCommit.run(() -> eligible.forEach(r -> timers.track(
+                r.id(), newStatus, r.createdAt(), r.scheduledAt(), r.durationMinutes())));
+        return new BulkBookingStatusResponse(newStatus.name(), eligible.size(), List.copyOf(outcomes.values()));
+    }
+
+    // Explains why the conditional update matched no row; current is the latest status seen,
+    // which the snapshot read of the booking may predate
+    private static BadRequestException transitionRejected(Booking booking, Booking.BookingStatus current,
+                                                          Booking.BookingStatus target,
+                                                          Long actorId, boolean isProvider) {
+        Long ownerId = isProvider ? booking.getProvider().getUser().getId() : booking.getUser().getId();
+        if (!ownerId.equals(actorId)) {
+            return new BadRequestException("Not authorized");
+        }
+        return new BadRequestException("Cannot change booking from " + current + " to " + target);
     }
 
     @Transactional
@@ -126,14 +286,11 @@ public class BookingService {
                 .build();
         reviewRepository.save(review);
 
-        // Update provider avg rating
-        ServiceProvider provider = booking.getProvider();
-        Double avgRating = reviewRepository.calculateAvgRating(provider.getId());
-        long count = reviewRepository.findByProviderId(provider.getId(),
-                org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
-        provider.setAvgRating(avgRating != null ? avgRating : 0.0);
-        provider.setTotalRatings((int) count);
-        providerRepository.save(provider);
+        // Constant cost whatever the review count: one relative UPDATE in this transaction
+        ServiceProvider provider = providerRatings.addRating(booking.getProvider().getId(), req.getRating());
+        providerIndexer.reindex(provider);
+        events.publish(BookingEvent.of(BookingEvent.REVIEWED, booking.getId(), provider.getId(), booking.getStatus()),
+                userId, provider.getUser().getId());
 
         return ReviewResponse.from(review);
     }
@@ -0,0 +1,230 @@
+package com.servicehub.service;
+
+import com.servicehub.entity.Booking;
+import com.servicehub.entity.WeeklySchedule;
+import com.servicehub.exception.ConflictException;
+import com.servicehub.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-provider interval index of bookings that hold a time slot
+ * (PENDING / CONFIRMED / IN_PROGRESS). Overlap checks are a bounded range scan
+ * of a sorted map. Each provider's map is guarded by one of a fixed set of striped
+ * locks, so bookings for unrelated providers never wait on each other.
+ *
+ * <p>A reservation is placed before the booking row is inserted and is dropped again
+ * if the transaction rolls back. This index is the only guard against overlapping
+ * bookings, and it lives in one JVM: with several application instances, overlaps
+ * with different start times are not caught. The unique (provider_id, active_slot)
+ * constraint on {@code bookings} only rejects two live bookings with the same start.
+ *
+ * <p>It also materializes, per provider and day, a 48-bit mask of occupied half-hour
+ * slots (same layout as {@link WeeklySchedule}) for availability search.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingSlotIndex {
+
+    private static final int STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, NavigableMap<SlotKey, Slot>> byProvider = new ConcurrentHashMap<>();
+    private final Map<Long, Slot> byBooking = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, Long>> occupied = new ConcurrentHashMap<>();  // provider -> epochDay -> mask
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    private record SlotKey(LocalDateTime start, long seq) implements Comparable<SlotKey> {
+        @Override
+        public int compareTo(SlotKey o) {
+            int c = start.compareTo(o.start);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+
+    private static final class Slot {
+        final Long providerId;
+        final SlotKey key;
+        final LocalDateTime end;
+        volatile Long bookingId;
+
+        Slot(Long providerId, SlotKey key, LocalDateTime end, Long bookingId) {
+            this.providerId = providerId;
+            this.key = key;
+            this.end = end;
+            this.bookingId = bookingId;
+        }
+    }
+
+    private final AtomicLong seq = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Booking.BookingStatus> active = Arrays.stream(Booking.BookingStatus.values())
+                .filter(Booking.BookingStatus::holdsSlot).toList();
+        List<Object[]> rows = bookingRepository.findSlotsByStatusIn(active,
+                LocalDateTime.now().minusMinutes(Booking.MAX_DURATION_MINUTES));
+        byProvider.clear();
+        byBooking.clear();
+        occupied.clear();
+        for (Object[] row : rows) {
+            Long bookingId = (Long) row[0];
+            Long providerId = (Long) row[1];
+            LocalDateTime start = (LocalDateTime) row[2];
+            Integer minutes = (Integer) row[3];
+            LocalDateTime end = start.plusMinutes(minutes != null && minutes > 0 ? minutes : Booking.DEFAULT_DURATION_MINUTES);
+            insert(new Slot(providerId, new SlotKey(start, nextSeq()), end, bookingId));
+        }
+        log.info("Booking slot index built with {} active bookings", rows.size());
+    }
+
+    /**
+     * Reserves [start, end) for the provider or throws if it overlaps an active booking.
+     * Must be called inside the transaction that inserts the booking; call
+     * {@link #bind(Object, Long)} with the returned token once the id is known.
+     */
+    public Object reserve(Long providerId, LocalDateTime start, LocalDateTime end) {
+        ReentrantLock lock = stripeFor(providerId);
+        Slot slot;
+        lock.lock();
+        try {
+            NavigableMap<SlotKey, Slot> slots = byProvider.get(providerId);
+            if (slots != null) {
+                // Anything overlapping must start within MAX_DURATION before our end
+                SlotKey from = new SlotKey(start.minusMinutes(Booking.MAX_DURATION_MINUTES), Long.MIN_VALUE);
+                SlotKey to = new SlotKey(end, Long.MIN_VALUE);
+                for (Slot s : slots.subMap(from, true, to, false).values()) {
+                    if (s.end.isAfter(start)) {
+                        throw new ConflictException("Provider is already booked at this time");
+                    }
+                }
+            }
+            slot = new Slot(providerId, new SlotKey(start, nextSeq()), end, null);
+            byProvider.computeIfAbsent(providerId, id -> new TreeMap<>()).put(slot.key, slot);
+            markOccupied(slot);
+        } finally {
+            lock.unlock();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) remove(slot);
+                }
+            });
+        }
+        return slot;
+    }
+
+    public void bind(Object reservation, Long bookingId) {
+        Slot slot = (Slot) reservation;
+        slot.bookingId = bookingId;
+        byBooking.put(bookingId, slot);
+    }
+
+    /** Frees the slot held by a booking that reached a terminal status. */
+    public void release(Long bookingId) {
+        Slot slot = byBooking.remove(bookingId);
+        if (slot != null) remove(slot);
+    }
+
+    private void insert(Slot slot) {
+        ReentrantLock lock = stripeFor(slot.providerId);
+        lock.lock();
+        try {
+            byProvider.computeIfAbsent(slot.providerId, id -> new TreeMap<>()).put(slot.key, slot);
+            if (slot.bookingId != null) byBooking.put(slot.bookingId, slot);
+            markOccupied(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(Slot slot) {
+        ReentrantLock lock = stripeFor(slot.providerId);
+        lock.lock();
+        try {
+            NavigableMap<SlotKey, Slot> slots = byProvider.get(slot.providerId);
+            if (slots != null) {
+                slots.remove(slot.key);
+                if (slots.isEmpty()) byProvider.remove(slot.providerId);
+            }
+            if (slot.bookingId != null) byBooking.remove(slot.bookingId, slot);
+            recomputeOccupied(slot, slots);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Half-hour slots of {@code day} taken by the provider's active bookings. */
+    public long occupiedMask(Long providerId, LocalDate day) {
+        Map<Long, Long> days = occupied.get(providerId);
+        Long mask = days != null ? days.get(day.toEpochDay()) : null;
+        return mask != null ? mask : 0L;
+    }
+
+    // Callers hold the provider's stripe lock
+    private void markOccupied(Slot slot) {
+        Map<Long, Long> days = occupied.computeIfAbsent(slot.providerId, id -> new ConcurrentHashMap<>());
+        for (LocalDate d = slot.key.start().toLocalDate(); d.atStartOfDay().isBefore(slot.end); d = d.plusDays(1)) {
+            days.merge(d.toEpochDay(), dayMask(slot.key.start(), slot.end, d), (a, b) -> a | b);
+        }
+    }
+
+    // Slots may be shared by overlapping legacy bookings, so affected days are rebuilt, not cleared
+    private void recomputeOccupied(Slot removed, NavigableMap<SlotKey, Slot> slots) {
+        Map<Long, Long> days = occupied.get(removed.providerId);
+        if (days == null) return;
+        for (LocalDate d = removed.key.start().toLocalDate(); d.atStartOfDay().isBefore(removed.end); d = d.plusDays(1)) {
+            long mask = 0;
+            if (slots != null && !slots.isEmpty()) {
+                LocalDateTime dayStart = d.atStartOfDay();
+                SlotKey from = new SlotKey(dayStart.minusMinutes(Booking.MAX_DURATION_MINUTES), Long.MIN_VALUE);
+                SlotKey to = new SlotKey(dayStart.plusDays(1), Long.MIN_VALUE);
+                for (Slot s : slots.subMap(from, true, to, false).values()) {
+                    mask |= dayMask(s.key.start(), s.end, d);
+                }
+            }
+            if (mask == 0) days.remove(d.toEpochDay());
+            else days.put(d.toEpochDay(), mask);
+        }
+        if (days.isEmpty()) occupied.remove(removed.providerId);
+    }
+
+    private static long dayMask(LocalDateTime start, LocalDateTime end, LocalDate day) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        LocalDateTime s = start.isAfter(dayStart) ? start : dayStart;
+        LocalDateTime e = end.isBefore(dayEnd) ? end : dayEnd;
+        if (!e.isAfter(s)) return 0;
+        return WeeklySchedule.mask(s.toLocalTime(), e.equals(dayEnd) ? LocalTime.MIDNIGHT : e.toLocalTime());
+    }
+
+    private ReentrantLock stripeFor(Long providerId) {
+        return stripes[Math.floorMod(providerId.hashCode(), STRIPES)];
+    }
+
+    private long nextSeq() {
+        return seq.getAndIncrement();
+    }
+}
@@ -0,0 +1,92 @@
+package com.servicehub.service;
+
+import com.servicehub.dto.ServiceHubDTOs.BookingEvent;
+import com.servicehub.entity.Booking;
+import com.servicehub.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based status changes shared by the bulk endpoints and the lifecycle timers.
+ * Callers lock the rows, keep the ones they may move, and hand them to
+ * {@link #apply}, which updates them in one statement and schedules the
+ * after-commit side effects. Must run inside a transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingTransitions {
+
+    private final BookingRepository bookingRepository;
+    private final BookingSlotIndex slotIndex;
+    private final ProviderRanking ranking;
+    private final BookingEventHub events;
+    private final ProviderReadModel readModel;
+    private final AdminStatsRegistry stats;
+    private final BookingRollups rollups;
+
+    public record Row(Long id, Long providerId, Booking.BookingStatus status, Long userId,
+                      LocalDateTime createdAt, LocalDateTime scheduledAt, int durationMinutes, Long categoryId) {
+
+        static Row of(Object[] r) {
+            return new Row((Long) r[0], (Long) r[1], (Booking.BookingStatus) r[2], (Long) r[3],
+                    (LocalDateTime) r[4], (LocalDateTime) r[5], (Integer) r[6], (Long) r[7]);
+        }
+
+        public LocalDateTime endsAt() {
+            return scheduledAt.plusMinutes(durationMinutes);
+        }
+    }
+
+    /** Reads and row-locks the given bookings until the transaction ends; missing ids are skipped. */
+    public List<Row> lock(Collection<Long> ids) {
+        return bookingRepository.lockRowsByIdIn(ids).stream().map(Row::of).toList();
+    }
+
+    public List<Row> find(Collection<Long> ids) {
+        return bookingRepository.findRowsByIdIn(ids).stream().map(Row::of).toList();
+    }
+
+    public List<Row> findByStatusIn(Collection<Booking.BookingStatus> statuses) {
+        return bookingRepository.findRowsByStatusIn(statuses).stream().map(Row::of).toList();
+    }
+
+    /**
+     * Moves locked rows that the transition table allows to {@code to}.
+     *
+     * @param providerUserId the acting provider's user id when known; otherwise looked up per provider
+     */
+    public void apply(List<Row> rows, Booking.BookingStatus to, Long providerUserId) {
+        if (rows.isEmpty()) return;
+        List<Long> ids = rows.stream().map(Row::id).toList();
+        boolean release = !to.holdsSlot();
+        bookingRepository.transitionAll(ids, Booking.BookingStatus.sourcesOf(to), to,
+                to == Booking.BookingStatus.CONFIRMED, release, LocalDateTime.now());
+        stats.bookingsMoved(rows.stream().map(Row::status).toList(), to);
+        rows.forEach(r -> rollups.bookingEvent(r.categoryId(), r.providerId(), to));
+
+        if (release) {
+            AfterCommit.run(() -> ids.forEach(slotIndex::release));
+        }
+        if (to == Booking.BookingStatus.COMPLETED) {
+            List<Long> providers = rows.stream().map(Row::providerId).toList();
+            AfterCommit.run(() -> providers.forEach(ranking::recordCompletion));
+        }
+        publish(rows, BookingEvent.STATUS_CHANGED, to, providerUserId);
+    }
+
+    /** Sends one dashboard event per row to its user and provider. */
+    public void publish(List<Row> rows, String type, Booking.BookingStatus status, Long providerUserId) {
+        Map<Long, Long> providerUsers = new HashMap<>();
+        for (Row row : rows) {
+            Long providerUser = providerUserId != null ? providerUserId : providerUsers.computeIfAbsent(
+                    row.providerId(), pid -> readModel.get(pid).map(ProviderDocument::userId).orElse(null));
+            events.publish(BookingEvent.of(type, row.id(), row.providerId(), status), row.userId(), providerUser);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.servicehub.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.servicehub.dto.ServiceHubDTOs.CategoryResponse;
+import com.servicehub.repository.ServiceCategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable snapshot of the active category catalog, kept together with its
+ * serialized JSON and an ETag derived from those bytes. Rebuilt at startup
+ * and after admin category changes commit; reads never touch the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryCatalog {
+
+    private final ServiceCategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), "[]".getBytes(), "\"0\"");
+
+    public record Snapshot(List<CategoryResponse> categories, byte[] json, String etag) {}
+
+    public Snapshot current() {
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        List<CategoryResponse> categories = categoryRepository.findByIsActiveTrue().stream()
+                .map(CategoryResponse::from).toList();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(categories);
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            snapshot = new Snapshot(categories, json, "\"" + Long.toHexString(crc.getValue()) + "\"");
+            log.debug("Category catalog rebuilt: {} active categories", categories.size());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize category catalog", e);
+        }
+    }
+
+    /** Schedules a rebuild once the current transaction commits. */
+    public void refreshAfterCommit() {
+        AfterCommit.run(this::refresh);
+    }
+}
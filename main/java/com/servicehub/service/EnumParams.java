@@ -0,0 +1,32 @@
+package com.servicehub.service;
+
+import com.servicehub.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Request parameters naming an enum constant, matched case-insensitively after trimming.
+ * Unknown values are reported as 400 with the parameter's name.
+ */
+final class EnumParams {
+
+    private EnumParams() {
+    }
+
+    /** A required value; blank is rejected like an unknown one. */
+    static <E extends Enum<E>> E parse(Class<E> type, String value, String name) {
+        E parsed = parseOptional(type, value, name);
+        if (parsed == null) throw new BadRequestException("Missing " + name);
+        return parsed;
+    }
+
+    /** An optional filter; null or blank means "not given" and returns null. */
+    static <E extends Enum<E>> E parseOptional(Class<E> type, String value, String name) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.servicehub.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.servicehub.config.IdempotencyProperties;
+import com.servicehub.entity.IdempotencyRecord;
+import com.servicehub.exception.BadRequestException;
+import com.servicehub.exception.ConflictException;
+import com.servicehub.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per {@code Idempotency-Key} and replays the stored
+ * response to retries. Completed responses live in the {@code idempotency_keys} table
+ * (written in the same transaction as the work itself) and in a bounded in-memory
+ * cache. Duplicates arriving while the original is running on this instance wait
+ * for its result; on another instance they get 409 until it finishes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties props;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+
+    private record Stored(String requestHash, int status, String body, LocalDateTime expiresAt) {}
+
+    private final Map<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+
+    // Access-ordered, so the least recently used entry is evicted first
+    private final Map<String, Stored> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+            return size() > props.getCacheSize();
+        }
+    };
+
+    /**
+     * Runs {@code action} unless this principal already sent {@code key} for {@code scope};
+     * without a key the action simply runs.
+     */
+    public <T> ResponseEntity<T> execute(Long principalId, String scope, String key, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = principalId + ":" + scope + ":" + key;
+        String hash = hash(request);
+
+        Stored cached = cached(id);
+        if (cached != null) {
+            return replay(cached, hash, responseType);
+        }
+
+        CompletableFuture<Stored> mine = new CompletableFuture<>();
+        CompletableFuture<Stored> original = inFlight.putIfAbsent(id, mine);
+        if (original != null) {
+            return replay(await(original), hash, responseType);
+        }
+
+        boolean claimed = false;
+        try {
+            Stored existing = claim(principalId, scope, key, hash);
+            if (existing != null) {
+                remember(id, existing);
+                mine.complete(existing);
+                return replay(existing, hash, responseType);
+            }
+            claimed = true;
+
+            // The stored response commits together with the work it describes
+            ResponseEntity<T> response = tx.execute(status -> {
+                ResponseEntity<T> r = action.get();
+                IdempotencyRecord row = repository.findByPrincipalIdAndScopeAndKey(principalId, scope, key)
+                        .orElseThrow();
+                row.setStatus(IdempotencyRecord.Status.COMPLETED);
+                row.setResponseStatus(r.getStatusCode().value());
+                row.setResponseBody(toJson(r.getBody()));
+                return r;
+            });
+            Stored stored = new Stored(hash, response.getStatusCode().value(), toJson(response.getBody()),
+                    LocalDateTime.now().plus(props.getTtl()));
+            remember(id, stored);
+            mine.complete(stored);
+            return response;
+        } catch (RuntimeException e) {
+            if (claimed) release(principalId, scope, key);
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    // Returns the completed response if there is one, otherwise records this execution as IN_PROGRESS
+    private Stored claim(Long principalId, String scope, String key, String hash) {
+        try {
+            return tx.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                IdempotencyRecord row = repository.findByPrincipalIdAndScopeAndKey(principalId, scope, key)
+                        .orElse(null);
+                if (row != null && row.getExpiresAt().isAfter(now)) {
+                    if (!row.getRequestHash().equals(hash)) {
+                        throw mismatch();
+                    }
+                    if (row.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                        return new Stored(hash, row.getResponseStatus(), row.getResponseBody(),
+                                row.getExpiresAt());
+                    }
+                    if (row.getCreatedAt().isAfter(now.minus(props.getLease()))) {
+                        throw stillRunning();
+                    }
+                }
+                if (row == null) {
+                    row = IdempotencyRecord.builder().principalId(principalId).scope(scope).key(key).build();
+                }
+                // New, expired or abandoned: this execution takes the key over
+                row.setRequestHash(hash);
+                row.setStatus(IdempotencyRecord.Status.IN_PROGRESS);
+                row.setResponseStatus(null);
+                row.setResponseBody(null);
+                row.setCreatedAt(now);
+                row.setExpiresAt(now.plus(props.getTtl()));
+                repository.saveAndFlush(row);
+                return null;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the same key first
+            throw stillRunning();
+        }
+    }
+
+    private void release(Long principalId, String scope, String key) {
+        try {
+            tx.executeWithoutResult(status -> repository.findByPrincipalIdAndScopeAndKey(principalId, scope, key)
+                    .filter(r -> r.getStatus() == IdempotencyRecord.Status.IN_PROGRESS)
+                    .ifPresent(repository::delete));
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private Stored await(CompletableFuture<Stored> original) {
+        try {
+            return original.get(props.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw stillRunning();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillRunning();
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(Stored stored, String hash, Class<T> responseType) {
+        if (!stored.requestHash().equals(hash)) {
+            throw mismatch();
+        }
+        try {
+            T body = stored.body() != null ? objectMapper.readValue(stored.body(), responseType) : null;
+            return ResponseEntity.status(stored.status()).header("Idempotent-Replayed", "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response is not readable", e);
+        }
+    }
+
+    private Stored cached(String id) {
+        synchronized (cache) {
+            Stored s = cache.get(id);
+            if (s != null && s.expiresAt().isBefore(LocalDateTime.now())) {
+                cache.remove(id);
+                return null;
+            }
+            return s;
+        }
+    }
+
+    private void remember(String id, Stored stored) {
+        synchronized (cache) {
+            cache.put(id, stored);
+        }
+    }
+
+    @Scheduled(cron = "0 15 * * * *")
+    @Transactional
+    public void purgeExpired() {
+        int removed = repository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) log.debug("Purged {} expired idempotency keys", removed);
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static BadRequestException mismatch() {
+        return new BadRequestException(HEADER + " was already used for a different request");
+    }
+
+    private static ConflictException stillRunning() {
+        return new ConflictException("A request with this " + HEADER + " is still being processed");
+    }
+}
@@ -0,0 +1,73 @@
+package com.servicehub.service;
+
+import com.servicehub.dto.ServiceHubDTOs.CursorPage;
+import com.servicehub.exception.BadRequestException;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position of the last row returned by a keyset ("scroll") listing: the value
+ * of the sort column plus the id as tie-breaker. Handed to clients as an opaque
+ * URL-safe string and passed back to fetch the next slice.
+ */
+public record KeysetCursor(String sortKey, Long id) {
+
+    private static final int MAX_SIZE = 100;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((sortKey + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns {@code null} for a missing cursor, meaning "start from the first row". */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new KeysetCursor(raw.substring(0, sep), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public static KeysetCursor of(LocalDateTime sortKey, Long id) {
+        return new KeysetCursor(sortKey.toString(), id);
+    }
+
+    public static KeysetCursor of(Double sortKey, Long id) {
+        return new KeysetCursor(sortKey.toString(), id);
+    }
+
+    public LocalDateTime timestamp() {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public Double number() {
+        try {
+            return Double.valueOf(sortKey);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public static <E, T> CursorPage<T> page(Slice<E> slice, Function<E, T> mapper, Function<E, KeysetCursor> keyOf) {
+        List<E> rows = slice.getContent();
+        String next = slice.hasNext() && !rows.isEmpty()
+                ? keyOf.apply(rows.get(rows.size() - 1)).encode() : null;
+        return new CursorPage<>(rows.stream().map(mapper).toList(), next, slice.hasNext());
+    }
+}
@@ -0,0 +1,41 @@
+package com.servicehub.service;
+
+import com.servicehub.entity.BookingRollup;
+import com.servicehub.entity.Payment;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds {@link BookingRollups} from payment status changes, wherever they are made:
+ * a payment turning SUCCESS counts as PAID, one turning REFUNDED as REFUNDED.
+ * Hibernate creates this listener while the EntityManagerFactory is still being built,
+ * and {@link BookingRollups} needs that factory, so it is resolved on first use.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentRollupListener {
+
+    private final ObjectProvider<BookingRollups> rollups;
+
+    @PostLoad
+    void loaded(Payment payment) {
+        payment.setLoadedStatus(payment.getStatus());
+    }
+
+    @PostPersist
+    @PostUpdate
+    void saved(Payment payment) {
+        Payment.PaymentStatus status = payment.getStatus();
+        if (status == payment.getLoadedStatus()) return;
+        payment.setLoadedStatus(status);
+        if (status == Payment.PaymentStatus.SUCCESS) {
+            rollups.getObject().paymentEvent(payment.getBooking().getId(), BookingRollup.Event.PAID, payment.getAmount());
+        } else if (status == Payment.PaymentStatus.REFUNDED) {
+            rollups.getObject().paymentEvent(payment.getBooking().getId(), BookingRollup.Event.REFUNDED, payment.getAmount());
+        }
+    }
+}
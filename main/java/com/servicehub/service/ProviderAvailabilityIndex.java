@@ -0,0 +1,113 @@
+package com.servicehub.service;
+
+import com.servicehub.entity.WeeklySchedule;
+import com.servicehub.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers "who is free on this day in this window" for approved, available providers.
+ * Each provider's weekly hours are one 48-bit mask per weekday; bookings are masked
+ * out with the per-day occupancy kept by {@link BookingSlotIndex}. A query is a few
+ * AND/NOT/shift operations per candidate and never touches the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProviderAvailabilityIndex {
+
+    private final BookingSlotIndex slotIndex;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(Long providerId, WeeklySchedule schedule, Set<Long> categoryIds, String cityKey) {}
+
+    /** A free provider and the earliest start inside the requested window. */
+    public record Match(Long providerId, LocalTime freeFrom) {}
+
+    public void index(ProviderDocument doc) {
+        if (!doc.approved() || !doc.available()) {
+            entries.remove(doc.id());
+            return;
+        }
+        WeeklySchedule schedule = doc.workingHours() != null ? doc.workingHours() : WeeklySchedule.DEFAULT;
+        entries.put(doc.id(), new Entry(doc.id(), schedule, Set.copyOf(doc.categoryIds()),
+                doc.city() != null ? doc.city().trim().toLowerCase(Locale.ROOT) : null));
+    }
+
+    public void rebuild(Collection<ProviderDocument> docs) {
+        entries.clear();
+        docs.forEach(this::index);
+    }
+
+    /**
+     * Providers with {@code durationMinutes} of contiguous free time between {@code from}
+     * and {@code to} on {@code date}; with no duration the whole window must be free.
+     * Both bounds must fall on a slot boundary, and on today only slots that have not
+     * started yet are offered.
+     */
+    public List<Match> findFree(LocalDate date, LocalTime from, LocalTime to, Integer durationMinutes,
+                                Long categoryId, String city, int limit) {
+        LocalDate today = LocalDate.now();
+        if (date.isBefore(today)) throw new BadRequestException("Date is in the past");
+        if (!onSlotBoundary(from) || !onSlotBoundary(to)) {
+            throw new BadRequestException("Times must be on a " + WeeklySchedule.SLOT_MINUTES + "-minute boundary");
+        }
+        long window = WeeklySchedule.mask(from, to);
+        if (window == 0) throw new BadRequestException("Time window is empty");
+        int windowSlots = Long.bitCount(window);
+        int needed = durationMinutes == null ? windowSlots
+                : (durationMinutes + WeeklySchedule.SLOT_MINUTES - 1) / WeeklySchedule.SLOT_MINUTES;
+        if (needed < 1 || needed > windowSlots) {
+            throw new BadRequestException("Duration must fit inside the time window");
+        }
+        if (date.equals(today)) {
+            window &= ~startedSlots(LocalTime.now());
+        }
+        DayOfWeek dow = date.getDayOfWeek();
+        String cityKey = city != null && !city.isBlank() ? city.trim().toLowerCase(Locale.ROOT) : null;
+
+        List<Match> matches = new ArrayList<>();
+        for (Entry e : entries.values()) {
+            if (categoryId != null && !e.categoryIds().contains(categoryId)) continue;
+            if (cityKey != null && !cityKey.equals(e.cityKey())) continue;
+
+            // Cheap check on working hours first, occupancy only if that passes
+            long working = e.schedule().mask(dow) & window;
+            if (Long.bitCount(working) < needed) continue;
+            long free = working & ~slotIndex.occupiedMask(e.providerId(), date);
+
+            long runs = runsOf(free, needed);
+            if (runs != 0) {
+                matches.add(new Match(e.providerId(), WeeklySchedule.timeOf(Long.numberOfTrailingZeros(runs))));
+            }
+        }
+        matches.sort(Comparator.comparing(Match::freeFrom).thenComparing(Match::providerId));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private static boolean onSlotBoundary(LocalTime t) {
+        return t.getMinute() % WeeklySchedule.SLOT_MINUTES == 0 && t.getSecond() == 0 && t.getNano() == 0;
+    }
+
+    // Slots that started before now, including the one in progress
+    private static long startedSlots(LocalTime now) {
+        int minutes = now.getHour() * 60 + now.getMinute() + (now.getSecond() > 0 || now.getNano() > 0 ? 1 : 0);
+        int firstOpen = (minutes + WeeklySchedule.SLOT_MINUTES - 1) / WeeklySchedule.SLOT_MINUTES;
+        return firstOpen >= WeeklySchedule.SLOTS_PER_DAY ? WeeklySchedule.FULL_DAY : (1L << firstOpen) - 1;
+    }
+
+    // Bit i survives iff bits i .. i+len-1 are all set in mask
+    private static long runsOf(long mask, int len) {
+        long runs = mask;
+        for (int i = 1; i < len && runs != 0; i++) {
+            runs &= mask >>> i;
+        }
+        return runs;
+    }
+}
@@ -0,0 +1,94 @@
+package com.servicehub.service;
+
+import com.servicehub.dto.ServiceHubDTOs.CategoryResponse;
+import com.servicehub.dto.ServiceHubDTOs.ProviderPublicResponse;
+import com.servicehub.dto.ServiceHubDTOs.WorkingHoursEntry;
+import com.servicehub.entity.ServiceCategory;
+import com.servicehub.entity.RatingHistogram;
+import com.servicehub.entity.ServiceProvider;
+import com.servicehub.entity.WeeklySchedule;
+
+import java.util.List;
+
+/**
+ * Immutable, flattened snapshot of a provider: everything the public
+ * endpoints and the in-memory indexes need, with no lazy associations.
+ * Captured inside the writing transaction (while lazy associations are
+ * reachable) and applied to the read model and indexes after commit.
+ */
+public record ProviderDocument(
+        Long id,
+        Long userId,
+        String fullName,
+        String email,
+        String phone,
+        String description,
+        String city,
+        Double latitude,
+        Double longitude,
+        Integer experienceYears,
+        Double hourlyRate,
+        Double avgRating,
+        Integer totalRatings,
+        List<Integer> ratingHistogram,   // counts for 1..5 stars
+        ServiceProvider.ApprovalStatus approvalStatus,
+        boolean available,
+        String profileImagePath,
+        WeeklySchedule workingHours,
+        List<Long> categoryIds,
+        List<CategoryResponse> categories
+) {
+
+    public static ProviderDocument from(ServiceProvider sp) {
+        List<ServiceCategory> cats = sp.getServiceCategories();
+        return new ProviderDocument(
+                sp.getId(),
+                sp.getUser().getId(),
+                sp.getUser().getFullName(),
+                sp.getUser().getEmail(),
+                sp.getUser().getPhone(),
+                sp.getDescription(),
+                sp.getCity(),
+                sp.getLatitude(),
+                sp.getLongitude(),
+                sp.getExperienceYears(),
+                sp.getHourlyRate(),
+                sp.getAvgRating(),
+                sp.getTotalRatings(),
+                (sp.getRatingHistogram() != null ? sp.getRatingHistogram() : RatingHistogram.empty()).counts(),
+                sp.getApprovalStatus(),
+                Boolean.TRUE.equals(sp.getIsAvailable()),
+                sp.getProfileImagePath(),
+                sp.getWorkingHours(),
+                cats.stream().map(ServiceCategory::getId).toList(),
+                cats.stream().map(CategoryResponse::from).toList()
+        );
+    }
+
+    public boolean approved() {
+        return approvalStatus == ServiceProvider.ApprovalStatus.APPROVED;
+    }
+
+    public ProviderPublicResponse toPublicResponse() {
+        return ProviderPublicResponse.builder()
+                .id(id)
+                .userId(userId)
+                .fullName(fullName)
+                .email(email)
+                .phone(phone)
+                .city(city)
+                .description(description)
+                .experienceYears(experienceYears)
+                .hourlyRate(hourlyRate)
+                .avgRating(avgRating)
+                .totalRatings(totalRatings)
+                .isAvailable(available)
+                .approvalStatus(approvalStatus.name())
+                .serviceCategories(categories)
+                .profileImagePath(profileImagePath)
+                .latitude(latitude)
+                .longitude(longitude)
+                .workingHours(WorkingHoursEntry.fromSchedule(workingHours))
+                .build();
+    }
+}
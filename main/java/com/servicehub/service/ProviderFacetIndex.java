@@ -0,0 +1,229 @@
+package com.servicehub.service;
+
+import com.servicehub.dto.ServiceHubDTOs.FacetValue;
+import com.servicehub.dto.ServiceHubDTOs.ProviderFacetsResponse;
+import com.servicehub.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Facet counts (category, city, rate band, rating band) over approved, available
+ * providers. Every provider occupies a slot; each facet value keeps a bitset of
+ * slots plus a running count. Unfiltered counts are read straight from the
+ * counters, filtered counts are bitset intersections, so the cost scales with
+ * the number of facet values rather than the number of providers.
+ */
+@Component
+public class ProviderFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String CITY = "city";
+    public static final String RATE = "rate";
+    public static final String RATING = "rating";
+
+    private static final double[] RATE_BOUNDS = {300, 600, 1000};
+    private static final String[] RATE_BANDS = {"0-300", "300-600", "600-1000", "1000+"};
+    private static final double[] RATING_BOUNDS = {2, 3, 4};
+    private static final String[] RATING_BANDS = {"0-2", "2-3", "3-4", "4-5"};
+    private static final String UNRATED = "unrated";
+
+    private final Map<String, Map<String, Bucket>> facets = new LinkedHashMap<>();
+    private final Map<Long, Integer> slotOf = new HashMap<>();
+    private final Map<Integer, Map<String, List<String>>> valuesAt = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private int nextSlot;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Bucket {
+        final BitSet slots = new BitSet();
+        String label;
+        int count;
+
+        Bucket(String label) {
+            this.label = label;
+        }
+    }
+
+    /** Optional filters; a null field means "any". */
+    public record Filters(Long categoryId, String city, String rateBand, String ratingBand) {}
+
+    public ProviderFacetIndex() {
+        for (String f : List.of(CATEGORY, CITY, RATE, RATING)) facets.put(f, new HashMap<>());
+    }
+
+    public void index(ProviderDocument doc) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(doc.id());
+            if (!doc.approved() || !doc.available()) return;
+
+            int slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+            slotOf.put(doc.id(), slot);
+            live.set(slot);
+
+            Map<String, List<String>> values = new HashMap<>();
+            List<String> cats = new ArrayList<>();
+            for (int i = 0; i < doc.categoryIds().size(); i++) {
+                Long catId = doc.categoryIds().get(i);
+                categoryNames.put(catId, doc.categories().get(i).getName());
+                cats.add(String.valueOf(catId));
+            }
+            values.put(CATEGORY, cats);
+            if (doc.city() != null && !doc.city().isBlank()) {
+                values.put(CITY, List.of(cityKey(doc.city())));
+            }
+            values.put(RATE, List.of(rateBand(doc.hourlyRate())));
+            values.put(RATING, List.of(ratingBand(doc.avgRating(), doc.totalRatings())));
+
+            values.forEach((facet, vals) -> {
+                for (String v : vals) {
+                    String label = switch (facet) {
+                        case CATEGORY -> categoryNames.get(Long.valueOf(v));
+                        case CITY -> doc.city().trim();
+                        default -> v;
+                    };
+                    Bucket b = facets.get(facet).computeIfAbsent(v, k -> new Bucket(label));
+                    b.slots.set(slot);
+                    b.count++;
+                }
+            });
+            valuesAt.put(slot, values);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<ProviderDocument> docs) {
+        lock.writeLock().lock();
+        try {
+            facets.values().forEach(Map::clear);
+            slotOf.clear();
+            valuesAt.clear();
+            freeSlots.clear();
+            live.clear();
+            nextSlot = 0;
+            docs.forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts for every facet value. Each facet is counted against all filters
+     * except its own, so the UI can offer the alternatives to a chosen value.
+     * {@code candidateIds}, when present, further restricts the base set (e.g. text search hits).
+     */
+    public ProviderFacetsResponse facets(Filters filters, Collection<Long> candidateIds) {
+        validate(filters);
+        lock.readLock().lock();
+        try {
+            BitSet base = (BitSet) live.clone();
+            if (candidateIds != null) {
+                BitSet candidates = new BitSet();
+                for (Long id : candidateIds) {
+                    Integer slot = slotOf.get(id);
+                    if (slot != null) candidates.set(slot);
+                }
+                base.and(candidates);
+            }
+            boolean unfiltered = candidateIds == null;
+
+            Map<String, BitSet> restrictions = new HashMap<>();
+            if (filters.categoryId() != null) restrictions.put(CATEGORY, slots(CATEGORY, String.valueOf(filters.categoryId())));
+            if (filters.city() != null) restrictions.put(CITY, slots(CITY, cityKey(filters.city())));
+            if (filters.rateBand() != null) restrictions.put(RATE, slots(RATE, filters.rateBand()));
+            if (filters.ratingBand() != null) restrictions.put(RATING, slots(RATING, filters.ratingBand()));
+
+            Map<String, List<FacetValue>> result = new LinkedHashMap<>();
+            for (Map.Entry<String, Map<String, Bucket>> facet : facets.entrySet()) {
+                BitSet scope = null;
+                if (!unfiltered || restrictions.keySet().stream().anyMatch(f -> !f.equals(facet.getKey()))) {
+                    scope = (BitSet) base.clone();
+                    for (Map.Entry<String, BitSet> r : restrictions.entrySet()) {
+                        if (!r.getKey().equals(facet.getKey())) scope.and(r.getValue());
+                    }
+                }
+
+                List<FacetValue> values = new ArrayList<>();
+                for (Map.Entry<String, Bucket> v : facet.getValue().entrySet()) {
+                    Bucket b = v.getValue();
+                    long count;
+                    if (scope == null) {
+                        count = b.count;
+                    } else {
+                        BitSet hit = (BitSet) b.slots.clone();
+                        hit.and(scope);
+                        count = hit.cardinality();
+                    }
+                    if (count > 0) values.add(new FacetValue(v.getKey(), b.label, count));
+                }
+                values.sort(Comparator.comparingLong(FacetValue::getCount).reversed()
+                        .thenComparing(FacetValue::getValue));
+                result.put(facet.getKey(), values);
+            }
+
+            BitSet matching = (BitSet) base.clone();
+            restrictions.values().forEach(matching::and);
+            return new ProviderFacetsResponse(matching.cardinality(), result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet slots(String facet, String value) {
+        Bucket b = facets.get(facet).get(value);
+        return b != null ? b.slots : new BitSet();
+    }
+
+    private void removeLocked(Long providerId) {
+        Integer slot = slotOf.remove(providerId);
+        if (slot == null) return;
+        Map<String, List<String>> values = valuesAt.remove(slot);
+        values.forEach((facet, vals) -> {
+            Map<String, Bucket> buckets = facets.get(facet);
+            for (String v : vals) {
+                Bucket b = buckets.get(v);
+                b.slots.clear(slot);
+                if (--b.count == 0) buckets.remove(v);
+            }
+        });
+        live.clear(slot);
+        freeSlots.push(slot);
+    }
+
+    private static void validate(Filters filters) {
+        if (filters.rateBand() != null && !Arrays.asList(RATE_BANDS).contains(filters.rateBand())) {
+            throw new BadRequestException("Unknown rate band: " + filters.rateBand());
+        }
+        if (filters.ratingBand() != null && !UNRATED.equals(filters.ratingBand())
+                && !Arrays.asList(RATING_BANDS).contains(filters.ratingBand())) {
+            throw new BadRequestException("Unknown rating band: " + filters.ratingBand());
+        }
+    }
+
+    private static String cityKey(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String rateBand(Double rate) {
+        double r = rate != null ? rate : 0;
+        for (int i = 0; i < RATE_BOUNDS.length; i++) {
+            if (r < RATE_BOUNDS[i]) return RATE_BANDS[i];
+        }
+        return RATE_BANDS[RATE_BANDS.length - 1];
+    }
+
+    static String ratingBand(Double avg, Integer total) {
+        if (total == null || total == 0 || avg == null) return UNRATED;
+        for (int i = 0; i < RATING_BOUNDS.length; i++) {
+            if (avg < RATING_BOUNDS[i]) return RATING_BANDS[i];
+        }
+        return RATING_BANDS[RATING_BANDS.length - 1];
+    }
+}
@@ -0,0 +1,145 @@
+package com.servicehub.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Uniform lat/lng grid over the service locations of approved, available providers.
+ * Nearest-neighbour queries scan rings of cells outward from the query point and stop
+ * as soon as no unscanned cell can hold anything closer than the current k-th result.
+ * Longitude cells wrap at the antimeridian, and the ring count is capped so a query near
+ * the poles (where a cell is only a few hundred metres wide) stays bounded.
+ */
+@Component
+public class ProviderGeoIndex {
+
+    static final double CELL_DEG = 0.05;            // ~5.5 km of latitude
+    static final int MAX_RING = 128;                // at most ~66k cell lookups per query
+    private static final int LNG_CELLS = (int) Math.round(360 / CELL_DEG);
+    private static final double KM_PER_DEG = 111.32;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+    private final Map<Long, Point> points = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Point(Long providerId, double lat, double lng, Set<Long> categoryIds, long cell) {}
+
+    public record Hit(Long providerId, double distanceKm) {}
+
+    public void index(ProviderDocument doc) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(doc.id());
+            if (!doc.approved() || !doc.available() || doc.latitude() == null || doc.longitude() == null) return;
+
+            long cell = cellOf(doc.latitude(), doc.longitude());
+            Point p = new Point(doc.id(), doc.latitude(), doc.longitude(), new HashSet<>(doc.categoryIds()), cell);
+            cells.computeIfAbsent(cell, c -> new ArrayList<>()).add(p);
+            points.put(doc.id(), p);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<ProviderDocument> docs) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            points.clear();
+            docs.forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} providers within {@code radiusKm} of the given point,
+     * nearest first, optionally restricted to one category.
+     */
+    public List<Hit> nearest(double lat, double lng, Long categoryId, double radiusKm, int limit) {
+        // Max-heap on distance: the root is the current k-th nearest
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::distanceKm).reversed());
+
+        int latIdx = index(lat);
+        int lngIdx = index(lng);
+        double cellKm = CELL_DEG * KM_PER_DEG * Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+        int maxRing = Math.min((int) Math.ceil(radiusKm / cellKm) + 1, MAX_RING);
+
+        lock.readLock().lock();
+        try {
+            for (int ring = 0; ring <= maxRing; ring++) {
+                // Only the cells on the ring's edge: the full top and bottom rows, then the two side columns
+                for (int dLng = -ring; dLng <= ring; dLng++) {
+                    collect(latIdx - ring, lngIdx + dLng, lat, lng, categoryId, radiusKm, limit, best);
+                    if (ring > 0) collect(latIdx + ring, lngIdx + dLng, lat, lng, categoryId, radiusKm, limit, best);
+                }
+                for (int dLat = -ring + 1; dLat <= ring - 1; dLat++) {
+                    collect(latIdx + dLat, lngIdx - ring, lat, lng, categoryId, radiusKm, limit, best);
+                    collect(latIdx + dLat, lngIdx + ring, lat, lng, categoryId, radiusKm, limit, best);
+                }
+                // Every cell in the next ring is at least ring * cellKm away
+                if (best.size() == limit && best.peek().distanceKm() <= ring * cellKm) break;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    private void collect(int latIdx, int lngIdx, double lat, double lng, Long categoryId,
+                         double radiusKm, int limit, PriorityQueue<Hit> best) {
+        List<Point> bucket = cells.get(key(latIdx, lngIdx));
+        if (bucket == null) return;
+        for (Point p : bucket) {
+            if (categoryId != null && !p.categoryIds().contains(categoryId)) continue;
+            double d = haversineKm(lat, lng, p.lat(), p.lng());
+            if (d > radiusKm) continue;
+            if (best.size() < limit) {
+                best.add(new Hit(p.providerId(), d));
+            } else if (d < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new Hit(p.providerId(), d));
+            }
+        }
+    }
+
+    private void removeLocked(Long providerId) {
+        Point old = points.remove(providerId);
+        if (old == null) return;
+        List<Point> bucket = cells.get(old.cell());
+        if (bucket != null) {
+            bucket.removeIf(p -> p.providerId().equals(providerId));
+            if (bucket.isEmpty()) cells.remove(old.cell());
+        }
+    }
+
+    private static int index(double deg) {
+        return (int) Math.floor(deg / CELL_DEG);
+    }
+
+    private static long cellOf(double lat, double lng) {
+        return key(index(lat), index(lng));
+    }
+
+    // Longitude indexes wrap, so the cells either side of +/-180 are neighbours
+    private static long key(int latIdx, int lngIdx) {
+        int wrapped = Math.floorMod(lngIdx + LNG_CELLS / 2, LNG_CELLS) - LNG_CELLS / 2;
+        return ((long) latIdx << 32) | (wrapped & 0xffffffffL);
+    }
+
+    static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
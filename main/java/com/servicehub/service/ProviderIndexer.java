@@ -0,0 +1,108 @@
+package com.servicehub.service;
+
+import com.servicehub.entity.ServiceProvider;
+import com.servicehub.repository.ServiceProviderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the provider read model and in-memory indexes in step with the database.
+ * Write paths call {@link #reindex(ServiceProvider)} inside their transaction; once it
+ * commits, the provider is re-read in a fresh transaction and applied, so a rolled-back
+ * write never leaks into search results. Re-read and apply happen under a per-provider
+ * lock, so of two racing writes the one applied last is always the newer committed row.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderIndexer {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final ServiceProviderRepository providerRepository;
+    private final ProviderReadModel readModel;
+    private final ProviderSearchIndex searchIndex;
+    private final ProviderGeoIndex geoIndex;
+    private final ProviderRanking ranking;
+    private final ProviderFacetIndex facetIndex;
+    private final ProviderSuggestIndex suggestIndex;
+    private final ProviderAvailabilityIndex availabilityIndex;
+    private final TransactionTemplate tx;
+
+    private final ReentrantLock[] stripes = newStripes();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildAll() {
+        List<ProviderDocument> docs = providerRepository.findAllForIndexing().stream()
+                .map(ProviderDocument::from).toList();
+        readModel.rebuild(docs);
+        searchIndex.rebuild(docs);
+        geoIndex.rebuild(docs);
+        ranking.rebuild(docs);
+        facetIndex.rebuild(docs);
+        suggestIndex.rebuild(docs);
+        availabilityIndex.rebuild(docs);
+        log.info("Provider indexes built for {} providers", docs.size());
+    }
+
+    public void reindex(ServiceProvider provider) {
+        reindex(List.of(provider.getId()));
+    }
+
+    /** Refreshes the given providers from the database once the current transaction commits. */
+    public void reindex(Collection<Long> providerIds) {
+        List<Long> ids = List.copyOf(providerIds);
+        if (ids.isEmpty()) return;
+        AfterCommit.run(() -> refresh(ids));
+    }
+
+    private void refresh(List<Long> ids) {
+        // Stripes are always taken in ascending order, so batches never deadlock each other
+        SortedSet<Integer> held = new TreeSet<>();
+        ids.forEach(id -> held.add(Math.floorMod(id.hashCode(), LOCK_STRIPES)));
+        held.forEach(i -> stripes[i].lock());
+        try {
+            readCommitted(ids).forEach(this::apply);
+        } finally {
+            held.forEach(i -> stripes[i].unlock());
+        }
+    }
+
+    // A new transaction: the committing one's persistence context still holds the pre-commit entities
+    private List<ProviderDocument> readCommitted(List<Long> ids) {
+        TransactionTemplate fresh = new TransactionTemplate(tx.getTransactionManager());
+        fresh.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        fresh.setReadOnly(true);
+        return fresh.execute(status -> providerRepository.findForIndexingByIdIn(ids).stream()
+                .map(ProviderDocument::from).toList());
+    }
+
+    private void apply(ProviderDocument doc) {
+        readModel.put(doc);
+        searchIndex.index(doc);
+        geoIndex.index(doc);
+        ranking.update(doc);
+        facetIndex.index(doc);
+        suggestIndex.index(doc);
+        availabilityIndex.index(doc);
+    }
+
+    private static ReentrantLock[] newStripes() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new ReentrantLock();
+        return locks;
+    }
+}
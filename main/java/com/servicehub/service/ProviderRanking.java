@@ -0,0 +1,206 @@
+package com.servicehub.service;
+
+import com.servicehub.config.RankingProperties;
+import com.servicehub.entity.Booking;
+import com.servicehub.exception.BadRequestException;
+import com.servicehub.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a normalized score vector per provider and answers weighted rankings
+ * with a bounded top-K heap. Vectors are refreshed only when the inputs change
+ * (profile edits, reviews, completed bookings) and once a day as the
+ * recent-bookings window slides, never per request.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderRanking {
+
+    private final RankingProperties properties;
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Running totals for the platform-wide mean rating used as the Bayesian prior
+    private double ratingMass;
+    private long ratingCount;
+
+    /** Each component is in [0, 1]; higher is better. */
+    public record ScoreVector(double rating, double price, double experience, double popularity, double availability) {
+
+        double dot(RankingProperties.Weights w) {
+            return rating * w.getRating() + price * w.getPrice() + experience * w.getExperience()
+                    + popularity * w.getPopularity() + availability * w.getAvailability();
+        }
+    }
+
+    private static final class Entry {
+        ProviderDocument doc;
+        final int[] dailyCompletions;
+        final long[] bucketDay;
+        volatile ScoreVector vector;
+
+        Entry(int days) {
+            dailyCompletions = new int[days];
+            bucketDay = new long[days];
+            Arrays.fill(bucketDay, -1);
+        }
+
+        synchronized void addCompletions(long day, int n) {
+            int i = (int) Math.floorMod(day, (long) dailyCompletions.length);
+            if (bucketDay[i] != day) {
+                bucketDay[i] = day;
+                dailyCompletions[i] = 0;
+            }
+            dailyCompletions[i] += n;
+        }
+
+        synchronized int recentCompletions(long today) {
+            int total = 0;
+            for (int i = 0; i < dailyCompletions.length; i++) {
+                if (today - bucketDay[i] < dailyCompletions.length) total += dailyCompletions[i];
+            }
+            return total;
+        }
+    }
+
+    public void rebuild(Collection<ProviderDocument> docs) {
+        synchronized (this) {
+            entries.clear();
+            ratingMass = 0;
+            ratingCount = 0;
+            for (ProviderDocument d : docs) {
+                Entry e = new Entry(properties.getRecentDays());
+                e.doc = d;
+                entries.put(d.id(), e);
+                ratingMass += mass(d);
+                ratingCount += count(d);
+            }
+        }
+
+        LocalDate since = LocalDate.now().minusDays(properties.getRecentDays() - 1L);
+        for (Object[] row : bookingRepository.countDailyByStatusSince(
+                Booking.BookingStatus.COMPLETED, since.atStartOfDay())) {
+            Entry e = entries.get((Long) row[0]);
+            if (e != null) e.addCompletions(((LocalDate) row[1]).toEpochDay(), ((Number) row[2]).intValue());
+        }
+        refreshVectors();
+    }
+
+    public void update(ProviderDocument doc) {
+        Entry e;
+        synchronized (this) {
+            e = entries.computeIfAbsent(doc.id(), id -> new Entry(properties.getRecentDays()));
+            if (e.doc != null) {
+                ratingMass -= mass(e.doc);
+                ratingCount -= count(e.doc);
+            }
+            e.doc = doc;
+            ratingMass += mass(doc);
+            ratingCount += count(doc);
+        }
+        e.vector = vectorFor(e, LocalDate.now().toEpochDay());
+    }
+
+    public void recordCompletion(Long providerId) {
+        Entry e = entries.get(providerId);
+        if (e == null || e.doc == null) return;
+        long today = LocalDate.now().toEpochDay();
+        e.addCompletions(today, 1);
+        e.vector = vectorFor(e, today);
+    }
+
+    public Optional<ScoreVector> scores(Long providerId) {
+        Entry e = entries.get(providerId);
+        return e == null ? Optional.empty() : Optional.ofNullable(e.vector);
+    }
+
+    /** Slides the popularity window and re-derives vectors against the current prior. */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void refreshVectors() {
+        long today = LocalDate.now().toEpochDay();
+        entries.values().forEach(e -> {
+            if (e.doc != null) e.vector = vectorFor(e, today);
+        });
+        log.debug("Ranking vectors refreshed for {} providers", entries.size());
+    }
+
+    public RankingProperties.Weights weights(String profile) {
+        RankingProperties.Weights w = properties.getProfiles().get(profile.toLowerCase(Locale.ROOT));
+        if (w == null) {
+            throw new BadRequestException("Unknown ranking profile: " + profile
+                    + " (expected one of " + properties.getProfiles().keySet() + ")");
+        }
+        return w;
+    }
+
+    /**
+     * Returns the best {@code k} candidates by weighted score, best first. Uses a
+     * min-heap of size k so the cost is O(n log k) rather than a full sort.
+     */
+    public List<ProviderDocument> topK(Collection<ProviderDocument> candidates, RankingProperties.Weights weights, int k) {
+        if (k <= 0) return List.of();
+        record Scored(ProviderDocument doc, double score) {}
+        Comparator<Scored> worstFirst = Comparator.comparingDouble(Scored::score)
+                .thenComparing(s -> s.doc().id(), Comparator.reverseOrder());
+
+        PriorityQueue<Scored> heap = new PriorityQueue<>(Math.min(k, Math.max(candidates.size(), 1)), worstFirst);
+        for (ProviderDocument d : candidates) {
+            Entry e = entries.get(d.id());
+            ScoreVector v = e != null ? e.vector : null;
+            if (v == null) continue;
+            Scored s = new Scored(d, v.dot(weights));
+            if (heap.size() < k) {
+                heap.add(s);
+            } else if (worstFirst.compare(s, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(s);
+            }
+        }
+
+        List<ProviderDocument> best = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) best.add(heap.poll().doc());
+        Collections.reverse(best);
+        return best;
+    }
+
+    private ScoreVector vectorFor(Entry e, long today) {
+        ProviderDocument d = e.doc;
+        double prior;
+        synchronized (this) {
+            prior = ratingCount > 0 ? ratingMass / ratingCount : 0;
+        }
+        double c = properties.getPriorWeight();
+        int n = count(d);
+        double bayes = (c * prior + mass(d)) / (c + n);
+
+        double rate = d.hourlyRate() != null ? d.hourlyRate() : 0;
+        double ref = properties.getReferenceRate();
+        int exp = d.experienceYears() != null ? d.experienceYears() : 0;
+        int recent = e.recentCompletions(today);
+
+        return new ScoreVector(
+                bayes / 5.0,
+                ref / (ref + rate),
+                exp / (exp + 5.0),
+                recent / (recent + 10.0),
+                d.available() ? 1.0 : 0.0
+        );
+    }
+
+    private static double mass(ProviderDocument d) {
+        return d.avgRating() != null ? d.avgRating() * count(d) : 0;
+    }
+
+    private static int count(ProviderDocument d) {
+        return d.totalRatings() != null ? d.totalRatings() : 0;
+    }
+}
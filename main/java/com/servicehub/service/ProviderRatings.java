@@ -0,0 +1,45 @@
+package com.servicehub.service;
+
+import com.servicehub.entity.ServiceProvider;
+import com.servicehub.exception.ResourceNotFoundException;
+import com.servicehub.repository.ServiceProviderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rating aggregates on {@link ServiceProvider}: a running sum, count and
+ * 1-5 star histogram, with the average derived from them, updated in place per review.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderRatings {
+
+    private final ServiceProviderRepository providerRepository;
+
+    /** Adds one rating and returns the provider with its updated aggregates. */
+    @Transactional
+    public ServiceProvider addRating(Long providerId, int rating) {
+        providerRepository.addRating(providerId, rating);
+        return providerRepository.findById(providerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
+    }
+
+    // Providers stored before these columns existed: their average and count were exact, so sum = avg * count.
+    // Runs (and commits) before ProviderIndexer.rebuildAll, so the read model starts with the backfilled histograms.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void backfillRatingSums() {
+        int updated = providerRepository.backfillRatingSums();
+        if (updated > 0) log.info("Backfilled rating sums for {} providers", updated);
+        int histograms = providerRepository.backfillRatingHistograms();
+        if (histograms > 0) log.info("Backfilled rating histograms for {} providers", histograms);
+    }
+}
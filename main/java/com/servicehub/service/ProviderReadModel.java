@@ -0,0 +1,96 @@
+package com.servicehub.service;
+
+import com.servicehub.dto.ServiceHubDTOs.ProviderPublicResponse;
+import com.servicehub.exception.BadRequestException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory projection of every provider as a flat {@link ProviderDocument}.
+ * Public browse and detail requests are answered from here without touching
+ * the database; {@link ProviderIndexer} keeps it current after each commit.
+ */
+@Component
+public class ProviderReadModel {
+
+    private static final Map<String, Function<ProviderDocument, Comparable>> SORTABLE = Map.of(
+            "id", ProviderDocument::id,
+            "fullName", ProviderDocument::fullName,
+            "city", ProviderDocument::city,
+            "hourlyRate", ProviderDocument::hourlyRate,
+            "avgRating", ProviderDocument::avgRating,
+            "totalRatings", ProviderDocument::totalRatings,
+            "experienceYears", ProviderDocument::experienceYears
+    );
+
+    // Replaced wholesale by rebuild, so readers never see a half-filled catalogue
+    private volatile Map<Long, ProviderDocument> docs = new ConcurrentHashMap<>();
+
+    // Writers are serialized with rebuild, so a put cannot land in a map that is being swapped out
+    public synchronized void put(ProviderDocument doc) {
+        docs.put(doc.id(), doc);
+    }
+
+    public synchronized void rebuild(Collection<ProviderDocument> all) {
+        Map<Long, ProviderDocument> fresh = new ConcurrentHashMap<>();
+        all.forEach(doc -> fresh.put(doc.id(), doc));
+        docs = fresh;
+    }
+
+    public Optional<ProviderDocument> get(Long id) {
+        return Optional.ofNullable(docs.get(id));
+    }
+
+    /** Approved, available providers, optionally limited to a category or to a set of candidate ids. */
+    public List<ProviderDocument> matching(Long categoryId, Collection<Long> candidateIds) {
+        Collection<ProviderDocument> source = candidateIds == null ? docs.values()
+                : candidateIds.stream().map(docs::get).filter(Objects::nonNull).toList();
+
+        List<ProviderDocument> matches = new ArrayList<>();
+        for (ProviderDocument d : source) {
+            if (d.approved() && d.available()
+                    && (categoryId == null || d.categoryIds().contains(categoryId))) {
+                matches.add(d);
+            }
+        }
+        return matches;
+    }
+
+    public Page<ProviderPublicResponse> findApproved(Long categoryId, Collection<Long> candidateIds, Pageable pageable) {
+        List<ProviderDocument> matches = matching(categoryId, candidateIds);
+        matches.sort(comparator(pageable.getSort()));
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches.stream().map(ProviderDocument::toPublicResponse).toList());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<ProviderPublicResponse> content = matches.subList(from, to).stream()
+                .map(ProviderDocument::toPublicResponse).toList();
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparator<ProviderDocument> comparator(Sort sort) {
+        Comparator<ProviderDocument> result = null;
+        for (Sort.Order order : sort) {
+            Function<ProviderDocument, Comparable> key = SORTABLE.get(order.getProperty());
+            if (key == null) {
+                throw new BadRequestException("Cannot sort providers by " + order.getProperty());
+            }
+            Comparator<ProviderDocument> c = Comparator.comparing(key,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            if (order.isDescending()) c = c.reversed();
+            result = result == null ? c : result.thenComparing(c);
+        }
+        Comparator<ProviderDocument> byId = Comparator.comparing(ProviderDocument::id);
+        return result == null ? byId : result.thenComparing(byId);
+    }
+}
@@ -0,0 +1,118 @@
+package com.servicehub.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tokenized inverted index over approved providers' names, descriptions and
+ * category names. Every query token is matched as a prefix, so "plu" finds
+ * "Plumbing" and "ra sh" finds "Ravi Sharma".
+ */
+@Component
+public class ProviderSearchIndex {
+
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Entry(Set<String> tokens, boolean available, Set<Long> categoryIds) {}
+
+    public void index(ProviderDocument doc) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(doc.id());
+            if (!doc.approved()) return;
+
+            Set<String> tokens = new HashSet<>();
+            tokens.addAll(tokenize(doc.fullName()));
+            tokens.addAll(tokenize(doc.description()));
+            doc.categories().forEach(c -> tokens.addAll(tokenize(c.getName())));
+
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new HashSet<>()).add(doc.id());
+            }
+            entries.put(doc.id(), new Entry(tokens, doc.available(), new HashSet<>(doc.categoryIds())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long providerId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(providerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<ProviderDocument> docs) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            entries.clear();
+            docs.forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of approved, available providers matching every token of
+     * {@code query} (as a prefix), optionally restricted to one category.
+     * Ids come back in ascending order.
+     */
+    public List<Long> search(String query, Long categoryId) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            Set<Long> result = null;
+            for (String token : tokens) {
+                Set<Long> matches = new HashSet<>();
+                for (Set<Long> ids : postings.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                    matches.addAll(ids);
+                }
+                if (result == null) result = matches;
+                else result.retainAll(matches);
+                if (result.isEmpty()) return List.of();
+            }
+
+            List<Long> ids = new ArrayList<>(result.size());
+            for (Long id : result) {
+                Entry e = entries.get(id);
+                if (e.available() && (categoryId == null || e.categoryIds().contains(categoryId))) {
+                    ids.add(id);
+                }
+            }
+            Collections.sort(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long providerId) {
+        Entry old = entries.remove(providerId);
+        if (old == null) return;
+        for (String token : old.tokens()) {
+            Set<Long> ids = postings.get(token);
+            if (ids != null && ids.remove(providerId) && ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String t : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!t.isEmpty()) tokens.add(t);
+        }
+        return tokens;
+    }
+}
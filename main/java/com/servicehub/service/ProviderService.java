@@ -1,17 +1,25 @@
 package com.servicehub.service;
 
+import com.servicehub.config.RankingProperties;
 import com.servicehub.dto.ServiceHubDTOs;
 import com.servicehub.dto.ServiceHubDTOs.*;
+import com.servicehub.entity.Address;
 import com.servicehub.entity.ServiceCategory;
 import com.servicehub.entity.ServiceProvider;
+import com.servicehub.entity.WeeklySchedule;
+import com.servicehub.exception.BadRequestException;
 import com.servicehub.exception.ResourceNotFoundException;
 import com.servicehub.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 @Service
@@ -21,14 +29,128 @@ public class ProviderService {
     private final ServiceProviderRepository providerRepository;
     private final ServiceCategoryRepository categoryRepository;
     private final ReviewRepository reviewRepository;
+    private final AddressRepository addressRepository;
+    private final ProviderReadModel readModel;
+    private final ProviderSearchIndex searchIndex;
+    private final ProviderGeoIndex geoIndex;
+    private final ProviderRanking ranking;
+    private final ProviderFacetIndex facetIndex;
+    private final ProviderSuggestIndex suggestIndex;
+    private final ProviderAvailabilityIndex availabilityIndex;
+    private final ProviderIndexer providerIndexer;
 
-    public Page<ProviderPublicResponse> getApprovedProviders(Long categoryId, String search, Pageable pageable) {
-        return providerRepository.findApprovedProviders(categoryId, search, pageable)
-                .map(ProviderPublicResponse::from);
+    private static final double DEFAULT_RADIUS_KM = 25.0;
+    private static final double MAX_RADIUS_KM = 100.0;
+    private static final int MAX_NEARBY = 50;
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_AVAILABLE = 100;
+
+    public Page<ProviderPublicResponse> getApprovedProviders(Long categoryId, String search, String rank,
+                                                             Pageable pageable) {
+        List<Long> ids = null;
+        if (search != null && !search.isBlank()) {
+            ids = searchIndex.search(search, categoryId);
+            if (ids.isEmpty()) {
+                return Page.empty(pageable);
+            }
+        }
+        if (rank == null || rank.isBlank()) {
+            return readModel.findApproved(categoryId, ids, pageable);
+        }
+
+        // Ranked: only the top (offset + size) candidates are ever ordered
+        RankingProperties.Weights weights = ranking.weights(rank);
+        List<ProviderDocument> candidates = readModel.matching(categoryId, ids);
+        int k = pageable.isPaged()
+                ? (int) Math.min(pageable.getOffset() + pageable.getPageSize(), candidates.size())
+                : candidates.size();
+        List<ProviderDocument> top = ranking.topK(candidates, weights, k);
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), top.size()) : 0;
+        List<ProviderPublicResponse> content = top.subList(from, top.size()).stream()
+                .map(ProviderDocument::toPublicResponse).toList();
+        return new PageImpl<>(content, pageable, candidates.size());
+    }
+
+    public List<AvailableProviderResponse> getAvailableProviders(LocalDate date, LocalTime from, LocalTime to,
+                                                                 Integer durationMinutes, Long categoryId,
+                                                                 String city, int limit) {
+        return availabilityIndex.findFree(date, from, to, durationMinutes, categoryId, city,
+                        Math.max(1, Math.min(limit, MAX_AVAILABLE))).stream()
+                .flatMap(m -> readModel.get(m.providerId()).stream()
+                        .map(doc -> AvailableProviderResponse.builder()
+                                .provider(doc.toPublicResponse())
+                                .date(date)
+                                .freeFrom(m.freeFrom())
+                                .build()))
+                .toList();
+    }
+
+    public List<SuggestionResponse> suggest(String q, int limit) {
+        return suggestIndex.suggest(q, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    public ProviderFacetsResponse getProviderFacets(ProviderFacetIndex.Filters filters, String search) {
+        List<Long> ids = null;
+        if (search != null && !search.isBlank()) {
+            ids = searchIndex.search(search, null);
+        }
+        return facetIndex.facets(filters, ids);
+    }
+
+    public CursorPage<ProviderPublicResponse> scrollApprovedProviders(Long categoryId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return KeysetCursor.page(
+                providerRepository.scrollApprovedProviders(categoryId,
+                        after != null ? after.number() : null,
+                        after != null ? after.id() : null,
+                        PageRequest.of(0, KeysetCursor.clampSize(size))),
+                sp -> readModel.get(sp.getId())
+                        .map(ProviderDocument::toPublicResponse)
+                        .orElseGet(() -> ProviderPublicResponse.from(sp)),
+                sp -> KeysetCursor.of(sp.getAvgRating(), sp.getId()));
+    }
+
+    /**
+     * Closest approved, available providers to either one of the caller's saved
+     * addresses or an explicit coordinate pair.
+     */
+    public List<NearbyProviderResponse> getNearbyProviders(Long userId, Long addressId, Double lat, Double lng,
+                                                           Long categoryId, Double radiusKm, int limit) {
+        if (addressId != null) {
+            if (userId == null) {
+                throw new BadRequestException("Login required to search from a saved address");
+            }
+            Address address = addressRepository.findById(addressId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Address not found"));
+            if (!address.getUser().getId().equals(userId)) {
+                throw new BadRequestException("Address does not belong to this user");
+            }
+            lat = address.getLatitude();
+            lng = address.getLongitude();
+        }
+        if (lat == null || lng == null) {
+            throw new BadRequestException("Location coordinates are required");
+        }
+        if (!(lat >= -90 && lat <= 90) || !(lng >= -180 && lng <= 180)) {
+            throw new BadRequestException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+
+        double radius = radiusKm != null ? Math.min(radiusKm, MAX_RADIUS_KM) : DEFAULT_RADIUS_KM;
+        List<ProviderGeoIndex.Hit> hits = geoIndex.nearest(lat, lng, categoryId, radius,
+                Math.max(1, Math.min(limit, MAX_NEARBY)));
+        return hits.stream()
+                .flatMap(h -> readModel.get(h.providerId()).stream()
+                        .map(doc -> NearbyProviderResponse.builder()
+                                .provider(doc.toPublicResponse())
+                                .distanceKm(Math.round(h.distanceKm() * 100) / 100.0)
+                                .build()))
+                .toList();
     }
 
     public ProviderPublicResponse getProviderById(Long id) {
-        return ProviderPublicResponse.from(findById(id));
+        return readModel.get(id)
+                .map(ProviderDocument::toPublicResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
     }
 
     public ProviderPublicResponse getProviderByUserId(Long userId) {
@@ -41,6 +163,37 @@ public class ProviderService {
         return reviewRepository.findByProviderId(providerId, pageable).map(ReviewResponse::from);
     }
 
+    @Transactional
+    public ProviderPublicResponse updateWorkingHours(Long userId, UpdateWorkingHoursRequest req) {
+        ServiceProvider provider = providerRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Provider profile not found"));
+        provider.setWorkingHours(WeeklySchedule.of(req.getHours().stream()
+                .map(h -> new WeeklySchedule.Range(h.getDay(), h.getStart(), h.getEnd()))
+                .toList()));
+        providerRepository.save(provider);
+        providerIndexer.reindex(provider);
+        return ProviderPublicResponse.from(provider);
+    }
+
+    /** Rating aggregates come from the read model; only the first page of reviews touches the database. */
+    public ReviewSummaryResponse getReviewSummary(Long providerId, int size) {
+        ProviderDocument doc = readModel.get(providerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
+        return new ReviewSummaryResponse(providerId, doc.avgRating(), doc.totalRatings(), doc.ratingHistogram(),
+                scrollProviderReviews(providerId, null, size));
+    }
+
+    public CursorPage<ReviewResponse> scrollProviderReviews(Long providerId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return KeysetCursor.page(
+                reviewRepository.scrollByProviderId(providerId,
+                        after != null ? after.timestamp() : null,
+                        after != null ? after.id() : null,
+                        PageRequest.of(0, KeysetCursor.clampSize(size))),
+                ReviewResponse::from,
+                r -> KeysetCursor.of(r.getCreatedAt(), r.getId()));
+    }
+
     @Transactional
     public ProviderPublicResponse updateProfile(Long userId, UpdateProviderRequest req) {
         ServiceProvider provider = providerRepository.findByUserId(userId)
@@ -51,6 +204,9 @@ public class ProviderService {
         if (req.getHourlyRate() != null) provider.setHourlyRate(req.getHourlyRate());
         if (req.getCredentialInfo() != null) provider.setCredentialInfo(req.getCredentialInfo());
         if (req.getIsAvailable() != null) provider.setIsAvailable(req.getIsAvailable());
+        if (req.getCity() != null && !req.getCity().isBlank()) provider.setCity(req.getCity());
+        if (req.getLatitude() != null) provider.setLatitude(req.getLatitude());
+        if (req.getLongitude() != null) provider.setLongitude(req.getLongitude());
 
         if (req.getServiceCategoryIds() != null) {
             List<ServiceCategory> cats = categoryRepository.findAllById(req.getServiceCategoryIds());
@@ -58,14 +214,10 @@ public class ProviderService {
         }
 
         providerRepository.save(provider);
+        providerIndexer.reindex(provider);
         return ProviderPublicResponse.from(provider);
     }
 
-    private ServiceProvider findById(Long id) {
-        return providerRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
-    }
-
     public List<ServiceHubDTOs.ProviderPublicResponse> getProvidersByCity(String city) {
         return providerRepository.findByCityIgnoreCase(city)
                 .stream()
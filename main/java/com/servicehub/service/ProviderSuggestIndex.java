@@ -0,0 +1,245 @@
+package com.servicehub.service;
+
+import com.servicehub.dto.ServiceHubDTOs.CategoryResponse;
+import com.servicehub.dto.ServiceHubDTOs.SuggestionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie for search-box type-ahead over approved provider names, their
+ * cities and their categories. Every node caches its best {@value #MAX_TOP}
+ * completions, so a lookup is a walk down the prefix and a copy of that list.
+ * Each term is also reachable from the start of every word ("sharma" finds
+ * "Ravi Sharma"). Providers are weighted by rating and review volume; cities
+ * and categories by how many approved providers they have.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProviderSuggestIndex {
+
+    public static final String PROVIDER = "PROVIDER";
+    public static final String CITY = "CITY";
+    public static final String CATEGORY = "CATEGORY";
+
+    private static final int MAX_TOP = 10;
+
+    private final CategoryCatalog categoryCatalog;
+
+    private final Node root = new Node();
+    private final Map<String, Term> terms = new HashMap<>();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final Comparator<Term> BEST_FIRST = Comparator.comparingDouble((Term t) -> t.weight).reversed()
+            .thenComparing(t -> t.text);
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>();
+        final Set<Term> terminals = new HashSet<>();
+        List<Term> top = List.of();
+    }
+
+    private static final class Term {
+        final String key;
+        final String type;
+        final String text;
+        final Long refId;
+        double weight;
+        int refs;   // providers backing a city/category term
+
+        Term(String key, String type, String text, Long refId, double weight) {
+            this.key = key;
+            this.type = type;
+            this.text = text;
+            this.refId = refId;
+            this.weight = weight;
+        }
+    }
+
+    private record Contribution(String cityKey, List<Long> categoryIds) {}
+
+    public void index(ProviderDocument doc) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(doc.id());
+            if (!doc.approved()) return;
+
+            insert(new Term(PROVIDER + ":" + doc.id(), PROVIDER, doc.fullName(), doc.id(), providerWeight(doc)));
+
+            String cityKey = null;
+            if (doc.city() != null && !doc.city().isBlank()) {
+                cityKey = CITY + ":" + normalize(doc.city());
+                addRef(cityKey, CITY, doc.city().trim(), null);
+            }
+            for (CategoryResponse c : doc.categories()) {
+                addRef(CATEGORY + ":" + c.getId(), CATEGORY, c.getName(), c.getId());
+            }
+            contributions.put(doc.id(), new Contribution(cityKey, doc.categoryIds()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<ProviderDocument> docs) {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.terminals.clear();
+            root.top = List.of();
+            terms.clear();
+            contributions.clear();
+            docs.forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) return List.of();
+
+        List<Term> top;
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) return List.of();
+            top = node.top;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Set<Long> activeCategories = new HashSet<>();
+        categoryCatalog.current().categories().forEach(c -> activeCategories.add(c.getId()));
+
+        List<SuggestionResponse> out = new ArrayList<>(Math.min(limit, top.size()));
+        for (Term t : top) {
+            if (out.size() >= limit) break;
+            if (CATEGORY.equals(t.type) && !activeCategories.contains(t.refId)) continue;
+            out.add(new SuggestionResponse(t.type, t.text, t.refId));
+        }
+        return out;
+    }
+
+    private void removeLocked(Long providerId) {
+        Contribution old = contributions.remove(providerId);
+        if (old == null) return;
+        Term provider = terms.remove(PROVIDER + ":" + providerId);
+        if (provider != null) detach(provider);
+        if (old.cityKey() != null) dropRef(old.cityKey());
+        for (Long catId : old.categoryIds()) dropRef(CATEGORY + ":" + catId);
+    }
+
+    private void addRef(String key, String type, String text, Long refId) {
+        Term t = terms.get(key);
+        if (t == null) {
+            t = new Term(key, type, text, refId, 0);
+            t.refs = 1;
+            t.weight = 1;
+            insert(t);
+        } else {
+            detach(t);
+            t.refs++;
+            t.weight = t.refs;
+            attach(t);
+        }
+    }
+
+    private void dropRef(String key) {
+        Term t = terms.get(key);
+        if (t == null) return;
+        detach(t);
+        if (--t.refs == 0) {
+            terms.remove(key);
+        } else {
+            t.weight = t.refs;
+            attach(t);
+        }
+    }
+
+    private void insert(Term t) {
+        terms.put(t.key, t);
+        attach(t);
+    }
+
+    private void attach(Term t) {
+        for (String suffix : wordStarts(t.text)) {
+            List<Node> path = new ArrayList<>(suffix.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < suffix.length(); i++) {
+                node = node.children.computeIfAbsent(suffix.charAt(i), c -> new Node());
+                path.add(node);
+            }
+            node.terminals.add(t);
+            recompute(path);
+        }
+    }
+
+    private void detach(Term t) {
+        for (String suffix : wordStarts(t.text)) {
+            List<Node> path = new ArrayList<>(suffix.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < suffix.length() && node != null; i++) {
+                node = node.children.get(suffix.charAt(i));
+                if (node != null) path.add(node);
+            }
+            if (node == null) continue;
+            node.terminals.remove(t);
+            recompute(path);
+            prune(path, suffix);
+        }
+    }
+
+    // Deepest first, so each parent merges already-updated child lists
+    private static void recompute(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node n = path.get(i);
+            List<Term> candidates = new ArrayList<>(n.terminals);
+            for (Node child : n.children.values()) {
+                for (Term t : child.top) {
+                    if (!candidates.contains(t)) candidates.add(t);
+                }
+            }
+            candidates.sort(BEST_FIRST);
+            n.top = candidates.size() > MAX_TOP ? List.copyOf(candidates.subList(0, MAX_TOP)) : List.copyOf(candidates);
+        }
+    }
+
+    private static void prune(List<Node> path, String suffix) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node n = path.get(i);
+            if (!n.terminals.isEmpty() || !n.children.isEmpty()) return;
+            path.get(i - 1).children.remove(suffix.charAt(i - 1));
+        }
+    }
+
+    private static Set<String> wordStarts(String text) {
+        String norm = normalize(text);
+        Set<String> starts = new LinkedHashSet<>();
+        if (norm.isEmpty()) return starts;
+        starts.add(norm);
+        for (int i = 1; i < norm.length(); i++) {
+            if (norm.charAt(i - 1) == ' ') starts.add(norm.substring(i));
+        }
+        return starts;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) return "";
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static double providerWeight(ProviderDocument doc) {
+        double rating = doc.avgRating() != null ? doc.avgRating() : 0;
+        int reviews = doc.totalRatings() != null ? doc.totalRatings() : 0;
+        return (1 + rating) * Math.log(2 + reviews);
+    }
+}
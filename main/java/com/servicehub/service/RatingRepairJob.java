@@ -0,0 +1,217 @@
+package com.servicehub.service;
+
+import com.servicehub.dto.ServiceHubDTOs.RatingRepairReport;
+import com.servicehub.repository.ArchivedReviewRepository;
+import com.servicehub.repository.ReviewRepository;
+import com.servicehub.repository.ServiceProviderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recomputes every provider's rating aggregates from its live and archived reviews
+ * and repairs the ones that drifted. The provider id space is split into fixed
+ * ranges that a fork-join pool works through in parallel; each range is one short
+ * transaction that locks its providers, counts their reviews with a grouped query,
+ * and batch-updates only the rows whose values differ. Locking the providers first
+ * keeps {@link ProviderRatings#addRating} from interleaving with the recount.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingRepairJob {
+
+    private static final long RANGE_SIZE = 1000;   // provider ids per transaction
+    private static final double EPSILON = 1e-9;
+    private static final int[] NO_REVIEWS = new int[5];
+
+    private static final String UPDATE_SQL = "UPDATE service_providers SET avg_rating = ?, rating_sum = ?, " +
+            "total_ratings = ?, ratings_1 = ?, ratings_2 = ?, ratings_3 = ?, ratings_4 = ?, ratings_5 = ? WHERE id = ?";
+
+    private final ServiceProviderRepository providerRepository;
+    private final ReviewRepository reviewRepository;
+    private final ArchivedReviewRepository archivedReviewRepository;
+    private final ProviderIndexer providerIndexer;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    private final ForkJoinPool pool = new ForkJoinPool(
+            Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors())));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress;
+
+    @Scheduled(cron = "${app.ratings.repair-cron:0 0 4 * * *}")
+    public void repairScheduled() {
+        start();
+    }
+
+    /** Starts a repair in the background unless one is already running, and returns its progress. */
+    public RatingRepairReport start() {
+        if (!running.get()) {
+            Thread worker = new Thread(this::repair, "rating-repair");
+            worker.setDaemon(true);
+            worker.start();
+        }
+        return report();
+    }
+
+    /** Progress of the running repair, or the outcome of the last one. */
+    public RatingRepairReport report() {
+        Progress p = progress;
+        return p != null ? p.snapshot() : RatingRepairReport.builder().state("IDLE").build();
+    }
+
+    /** Runs a full repair on the calling thread; returns immediately if one is already running. */
+    public void repair() {
+        if (!running.compareAndSet(false, true)) return;
+        Progress p = new Progress();
+        progress = p;
+        try {
+            Object[] range = providerRepository.findIdRange().get(0);
+            if (range[0] != null) {
+                long from = (Long) range[0];
+                long to = (Long) range[1] + 1;
+                p.partitions = (int) ((to - from + RANGE_SIZE - 1) / RANGE_SIZE);
+                pool.invoke(new RepairRange(from, to, p));
+            }
+            p.finish(null);
+            log.info("Rating repair scanned {} providers and repaired {} (count drift {}, max avg drift {})",
+                    p.scanned.sum(), p.repaired.sum(), p.countDrift.sum(), p.maxAvgDrift.get());
+        } catch (RuntimeException e) {
+            p.finish(e);
+            log.error("Rating repair failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private final class RepairRange extends RecursiveAction {
+        private final long from, to;
+        private final Progress progress;
+
+        RepairRange(long from, long to, Progress progress) {
+            this.from = from;
+            this.to = to;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= RANGE_SIZE) {
+                tx.executeWithoutResult(status -> repairRange(from, to, progress));
+                progress.partitionsDone.incrementAndGet();
+                return;
+            }
+            // Split on a range boundary so the leaves are exactly the RANGE_SIZE partitions
+            long mid = from + (to - from) / RANGE_SIZE / 2 * RANGE_SIZE;
+            invokeAll(new RepairRange(from, mid, progress), new RepairRange(mid, to, progress));
+        }
+    }
+
+    private void repairRange(long from, long to, Progress p) {
+        // Lock first: the recount below must see every review whose addRating already ran
+        List<Object[]> stored = providerRepository.lockRatingAggregates(from, to);
+        if (stored.isEmpty()) return;
+
+        Map<Long, int[]> actual = new HashMap<>();
+        count(reviewRepository.countByProviderAndRating(from, to), actual);
+        count(archivedReviewRepository.countByProviderAndRating(from, to), actual);
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Long> repairedIds = new ArrayList<>();
+        for (Object[] row : stored) {
+            Long id = (Long) row[0];
+            int[] counts = actual.getOrDefault(id, NO_REVIEWS);
+            long sum = 0;
+            int total = 0;
+            for (int i = 0; i < 5; i++) {
+                sum += (long) (i + 1) * counts[i];
+                total += counts[i];
+            }
+            double avg = total > 0 ? (double) sum / total : 0.0;
+
+            boolean drifted = !Objects.equals(row[1], sum) || !Objects.equals(row[2], total)
+                    || row[3] == null || Math.abs((Double) row[3] - avg) > EPSILON;
+            for (int i = 0; i < 5 && !drifted; i++) {
+                drifted = !Objects.equals(row[4 + i], counts[i]);
+            }
+            if (drifted) {
+                int storedTotal = row[2] != null ? (Integer) row[2] : 0;
+                double storedAvg = row[3] != null ? (Double) row[3] : 0.0;
+                p.countDrift.add(Math.abs(storedTotal - total));
+                p.maxAvgDrift.accumulate(Math.abs(storedAvg - avg));
+                updates.add(new Object[]{avg, sum, total, counts[0], counts[1], counts[2], counts[3], counts[4], id});
+                repairedIds.add(id);
+            }
+        }
+        p.scanned.add(stored.size());
+        if (updates.isEmpty()) return;
+
+        jdbc.batchUpdate(UPDATE_SQL, updates);
+        p.repaired.add(updates.size());
+        providerIndexer.reindex(repairedIds);
+    }
+
+    private static void count(List<Object[]> rows, Map<Long, int[]> into) {
+        for (Object[] r : rows) {
+            int rating = (Integer) r[1];
+            if (rating < 1 || rating > 5) continue;
+            into.computeIfAbsent((Long) r[0], id -> new int[5])[rating - 1] += ((Long) r[2]).intValue();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static final class Progress {
+        final LocalDateTime startedAt = LocalDateTime.now();
+        volatile LocalDateTime finishedAt;
+        volatile int partitions;
+        volatile String error;
+        final AtomicInteger partitionsDone = new AtomicInteger();
+        final LongAdder scanned = new LongAdder();
+        final LongAdder repaired = new LongAdder();
+        final LongAdder countDrift = new LongAdder();
+        final DoubleAccumulator maxAvgDrift = new DoubleAccumulator(Math::max, 0.0);
+
+        void finish(RuntimeException failure) {
+            error = failure != null ? failure.getMessage() : null;
+            finishedAt = LocalDateTime.now();
+        }
+
+        RatingRepairReport snapshot() {
+            LocalDateTime finished = finishedAt;
+            return RatingRepairReport.builder()
+                    .state(finished == null ? "RUNNING" : error != null ? "FAILED" : "COMPLETED")
+                    .startedAt(startedAt)
+                    .finishedAt(finished)
+                    .partitions(partitions)
+                    .partitionsDone(partitionsDone.get())
+                    .providersScanned(scanned.sum())
+                    .providersRepaired(repaired.sum())
+                    .ratingCountDrift(countDrift.sum())
+                    .maxAvgDrift(maxAvgDrift.get())
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.servicehub.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots over a fixed tick, covering
+ * 64^4 ticks (about 194 days at one second); later deadlines wait in an overflow
+ * list. Scheduling and cancelling are O(1); advancing costs one slot per tick plus
+ * re-placing the entries of a higher-level slot when the wheel enters it.
+ *
+ * <p>Each key has at most one pending deadline. Thread-safe.
+ */
+public final class TimingWheel<K> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private static final class Node<K> {
+        final K key;
+        final long deadline;    // in ticks
+        Node<K> prev, next;
+
+        Node(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+
+    private final long tickMillis;
+    private final Node<K>[][] slots;  // circular lists with sentinel heads
+    private final Node<K> overflow = sentinel();
+    private final Map<K, Node<K>> byKey = new HashMap<>();
+    private long currentTick;         // next tick to process
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        this.slots = new Node[LEVELS][SLOTS];
+        for (Node<K>[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) level[i] = sentinel();
+        }
+    }
+
+    /** Schedules (or reschedules) the key; deadlines in the past fire on the next advance. */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        Node<K> node = new Node<>(key, Math.max(Math.floorDiv(deadlineMillis, tickMillis), currentTick));
+        byKey.put(key, node);
+        place(node);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Node<K> node = byKey.remove(key);
+        if (node == null) return false;
+        unlink(node);
+        return true;
+    }
+
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    /** Processes every tick up to {@code nowMillis} and returns the keys that came due, in deadline order. */
+    public synchronized List<K> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<K> due = new ArrayList<>();
+        for (; currentTick <= target; currentTick++) {
+            long t = currentTick;
+            if ((t & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+                cascade(overflow);
+            }
+            // Highest level first, so entries can cascade down through several levels in one tick
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((t & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(slots[level][(int) (t >>> (BITS * level)) & MASK]);
+                }
+            }
+            Node<K> head = slots[0][(int) t & MASK];
+            for (Node<K> n = head.next; n != head; ) {
+                Node<K> next = n.next;
+                unlink(n);
+                byKey.remove(n.key);
+                due.add(n.key);
+                n = next;
+            }
+        }
+        return due;
+    }
+
+    // Lowest level whose slot is still ahead of the current tick within the same rotation of the level above
+    private void place(Node<K> node) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * (level + 1);
+            if ((node.deadline >>> shift) == (currentTick >>> shift)) {
+                link(slots[level][(int) (node.deadline >>> (BITS * level)) & MASK], node);
+                return;
+            }
+        }
+        link(overflow, node);
+    }
+
+    private void cascade(Node<K> head) {
+        Node<K> n = head.next;
+        head.next = head.prev = head;
+        while (n != head) {
+            Node<K> next = n.next;
+            place(n);
+            n = next;
+        }
+    }
+
+    private static <K> Node<K> sentinel() {
+        Node<K> s = new Node<>(null, 0);
+        s.prev = s.next = s;
+        return s;
+    }
+
+    private static <K> void link(Node<K> head, Node<K> node) {
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    private static <K> void unlink(Node<K> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = node.next = null;
+    }
+}